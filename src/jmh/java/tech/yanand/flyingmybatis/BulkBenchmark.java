@@ -0,0 +1,100 @@
+package tech.yanand.flyingmybatis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import tech.yanand.flyingmybatis.bench.BenchBook;
+import tech.yanand.flyingmybatis.bench.BenchBookMapper;
+import tech.yanand.flyingmybatis.bench.BenchConfig;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The bulk methods executed end-to-end against an in-memory HSQLDB, across the collection sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext applicationContext;
+
+    private BenchBookMapper mapper;
+
+    private List<BenchBook> books;
+
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        applicationContext = new AnnotationConfigApplicationContext(BenchConfig.class);
+        try (Connection connection = applicationContext.getBean(DataSource.class).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table bench_book (id bigint generated by default as identity primary key, "
+                    + "name varchar(100), publish_date date)");
+        }
+        mapper = applicationContext.getBean(BenchBookMapper.class);
+    }
+
+    // The inserts of the previous iteration are deleted, so every iteration starts with the same rows
+    @Setup(Level.Iteration)
+    public void insertBooks() {
+        mapper.deleteAll();
+        books = newBooks();
+        mapper.insertAll(books);
+        ids = books.stream().map(BenchBook::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public int insertAll() {
+        return mapper.insertAll(newBooks());
+    }
+
+    @Benchmark
+    public int insertAllInBatch() {
+        return mapper.insertAllInBatch(newBooks(), 1000);
+    }
+
+    @Benchmark
+    public List<BenchBook> selectAllById() {
+        return mapper.selectAllById(ids);
+    }
+
+    @Benchmark
+    public int updateAll() {
+        return mapper.updateAll(books);
+    }
+
+    private List<BenchBook> newBooks() {
+        return Stream.generate(() -> new BenchBook("bench_book", LocalDate.now())).limit(size).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package tech.yanand.flyingmybatis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.yanand.flyingmybatis.bench.BenchBook;
+import tech.yanand.flyingmybatis.bench.BenchBookMapper;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The field access through the compiled accessors of {@link ColumnInfo}, compared with the plain reflection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+    private BenchBook book;
+
+    private ColumnInfo columnInfo;
+
+    private Field field;
+
+    @Setup
+    public void setUp() throws Exception {
+        book = new BenchBook("bench_book", LocalDate.now());
+        columnInfo = MetaDataCache.getTableInfo(BenchBookMapper.class).getColumnInfos().stream()
+                .filter(info -> info.getFieldName().equals("name"))
+                .findFirst()
+                .orElseThrow();
+        field = BenchBook.class.getDeclaredField("name");
+        field.setAccessible(true);
+    }
+
+    @Benchmark
+    public Object compiledGet() {
+        return columnInfo.getValue(book);
+    }
+
+    @Benchmark
+    public Object reflectiveGet() throws IllegalAccessException {
+        return field.get(book);
+    }
+
+    @Benchmark
+    public void compiledSet() {
+        columnInfo.setValue(book, "bench_book");
+    }
+
+    @Benchmark
+    public void reflectiveSet() throws IllegalAccessException {
+        field.set(book, "bench_book");
+    }
+}
@@ -0,0 +1,109 @@
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.builder.annotation.ProviderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.yanand.flyingmybatis.bench.BenchBook;
+import tech.yanand.flyingmybatis.bench.BenchBookMapper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The SQL generation of the provider methods, and of the SQL prebuilt by the {@link AutoMapperProcessor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderBenchmark {
+
+    private ProviderContext context;
+
+    private TableInfo tableInfo;
+
+    private Map<String, Object> entityParam;
+
+    private List<BenchBook> entities;
+
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() throws Exception {
+        // The constructor is not public, the provider methods are normally called by MyBatis
+        Constructor<ProviderContext> constructor = ProviderContext.class
+                .getDeclaredConstructor(Class.class, Method.class, String.class);
+        constructor.setAccessible(true);
+        context = constructor.newInstance(BenchBookMapper.class,
+                AutoMapper.class.getMethod("selectAll"), null);
+
+        tableInfo = MetaDataCache.getTableInfo(BenchBookMapper.class);
+
+        BenchBook book = new BenchBook("bench_book", LocalDate.now());
+        book.setId(1L);
+        entityParam = Map.of(AutoMapperProvider.ENTITY, book);
+        entities = Stream.generate(() -> new BenchBook("bench_book", LocalDate.now())).limit(100).toList();
+        ids = LongStream.range(0, 100).boxed().toList();
+    }
+
+    @Benchmark
+    public String insertSql() {
+        return AutoMapperProvider.insertSql(tableInfo);
+    }
+
+    @Benchmark
+    public String insertAll() {
+        return AutoMapperProvider.insertAll(entities, context);
+    }
+
+    @Benchmark
+    public String selectByIdSql() {
+        return AutoMapperProvider.selectByIdSql(tableInfo);
+    }
+
+    @Benchmark
+    public String selectAllById() {
+        return AutoMapperProvider.selectAllById(ids, context);
+    }
+
+    @Benchmark
+    public String selectAllByColumn() {
+        return AutoMapperProvider.selectAllByColumn("name", "bench_book", context);
+    }
+
+    @Benchmark
+    public String selectPageAfter() {
+        return AutoMapperProvider.selectPageAfter(1L, 20, context);
+    }
+
+    @Benchmark
+    public String updateSql() {
+        return AutoMapperProvider.updateSql(tableInfo);
+    }
+
+    @Benchmark
+    public String updateSelective() {
+        return AutoMapperProvider.updateSelective(entityParam, context);
+    }
+
+    @Benchmark
+    public TableInfo getTableInfo() {
+        return MetaDataCache.getTableInfo(BenchBookMapper.class);
+    }
+}
@@ -0,0 +1,52 @@
+package tech.yanand.flyingmybatis.bench;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+import tech.yanand.flyingmybatis.Table;
+
+import java.time.LocalDate;
+
+@Table("bench_book")
+public class BenchBook {
+
+    @Column
+    @PrimaryKey
+    private Long id;
+
+    @Column
+    private String name;
+
+    @Column
+    private LocalDate publishDate;
+
+    public BenchBook() { }
+
+    public BenchBook(String name, LocalDate publishDate) {
+        this.name = name;
+        this.publishDate = publishDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDate getPublishDate() {
+        return publishDate;
+    }
+
+    public void setPublishDate(LocalDate publishDate) {
+        this.publishDate = publishDate;
+    }
+}
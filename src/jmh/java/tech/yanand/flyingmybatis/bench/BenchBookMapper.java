@@ -0,0 +1,6 @@
+package tech.yanand.flyingmybatis.bench;
+
+import tech.yanand.flyingmybatis.AutoMapper;
+
+public interface BenchBookMapper extends AutoMapper<BenchBook, Long> {
+}
@@ -0,0 +1,45 @@
+package tech.yanand.flyingmybatis.bench;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tech.yanand.flyingmybatis.AutoMapperProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * An in-memory HSQLDB with the {@link BenchBookMapper}, without Spring Boot.
+ */
+@Configuration
+public class BenchConfig {
+
+    @Bean
+    static AutoMapperProcessor autoMapperProcessor() {
+        return new AutoMapperProcessor();
+    }
+
+    @Bean
+    DataSource dataSource() {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:bench");
+        dataSource.setUser("SA");
+        return dataSource;
+    }
+
+    @Bean
+    SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        return factoryBean.getObject();
+    }
+
+    @Bean
+    MapperFactoryBean<BenchBookMapper> benchBookMapper(SqlSessionFactory sqlSessionFactory) {
+        MapperFactoryBean<BenchBookMapper> factoryBean = new MapperFactoryBean<>(BenchBookMapper.class);
+        factoryBean.setSqlSessionFactory(sqlSessionFactory);
+        return factoryBean;
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The asynchronous facade of an {@link AutoMapper}, so independent statements run concurrently,
+ * e.g. the lookups of several mappers take about as long as the slowest of them.
+ * <p>Each method is executed on the executor by the mapper, the mapper beans of MyBatis-Spring open a
+ * {@code SqlSession} for each call made outside of a transaction, so every statement has its own session and
+ * connection, and is committed when it completes. Hence the statements never join the transaction of the caller.
+ * <p>The default executor runs each statement on a virtual thread on Java 21 and later,
+ * or on a cached pool of daemon threads on the earlier versions.
+ * The concurrent statements are limited by the connection pool.
+ * <p>The cursor, stream and result handler variants of the {@link AutoMapper} are not covered, their results are
+ * consumed while the session is open, but the session of an asynchronous statement is closed when it returns.
+ *
+ * @param <E> The entity mapping to the DB table
+ * @param <K> The key of the table
+ * @author Richard Zhang
+ */
+public final class AsyncAutoMapper<E, K> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAutoMapper.class);
+
+    private final AutoMapper<E, K> mapper;
+
+    private final Executor executor;
+
+    private AsyncAutoMapper(AutoMapper<E, K> mapper, Executor executor) {
+        this.mapper = requireNonNull(mapper, "Mapper is null");
+        this.executor = requireNonNull(executor, "Executor is null");
+    }
+
+    /**
+     * Create the asynchronous facade of the mapper, executed by the default executor.
+     *
+     * @param mapper The mapper bean.
+     * @param <E>    The entity type.
+     * @param <K>    The key type.
+     * @return The asynchronous mapper.
+     */
+    public static <E, K> AsyncAutoMapper<E, K> of(AutoMapper<E, K> mapper) {
+        return new AsyncAutoMapper<>(mapper, DefaultExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * Create the asynchronous facade of the mapper, executed by the executor.
+     *
+     * @param mapper   The mapper bean.
+     * @param executor The executor of the statements.
+     * @param <E>      The entity type.
+     * @param <K>      The key type.
+     * @return The asynchronous mapper.
+     */
+    public static <E, K> AsyncAutoMapper<E, K> of(AutoMapper<E, K> mapper, Executor executor) {
+        return new AsyncAutoMapper<>(mapper, executor);
+    }
+
+    /**
+     * See {@link AutoMapper#insert(Object)}.
+     *
+     * @param entity The entity.
+     * @return The future of the count of the inserted rows.
+     */
+    public CompletableFuture<Integer> insert(E entity) {
+        return supply(() -> mapper.insert(entity));
+    }
+
+    /**
+     * See {@link AutoMapper#insertAll(Collection)}.
+     *
+     * @param entities The entities.
+     * @return The future of the count of the inserted rows.
+     */
+    public CompletableFuture<Integer> insertAll(Collection<E> entities) {
+        return supply(() -> mapper.insertAll(entities));
+    }
+
+    /**
+     * See {@link AutoMapper#insertAllInBatch(Collection, int)}.
+     *
+     * @param entities  The entities.
+     * @param batchSize The count of entities sent to DB in a batch.
+     * @return The future of the count of the inserted rows.
+     */
+    public CompletableFuture<Integer> insertAllInBatch(Collection<E> entities, int batchSize) {
+        return supply(() -> mapper.insertAllInBatch(entities, batchSize));
+    }
+
+    /**
+     * See {@link AutoMapper#insertOrUpdate(Object)}.
+     *
+     * @param entity The entity.
+     * @return The future of the count of the affected rows.
+     */
+    public CompletableFuture<Integer> insertOrUpdate(E entity) {
+        return supply(() -> mapper.insertOrUpdate(entity));
+    }
+
+    /**
+     * See {@link AutoMapper#insertAllOrUpdate(Collection)}.
+     *
+     * @param entities The entities.
+     * @return The future of the count of the affected rows.
+     */
+    public CompletableFuture<Integer> insertAllOrUpdate(Collection<E> entities) {
+        return supply(() -> mapper.insertAllOrUpdate(entities));
+    }
+
+    /**
+     * See {@link AutoMapper#selectById(Object)}.
+     *
+     * @param id The primary key.
+     * @return The future of the entity, or of {@code null} if it does not exist.
+     */
+    public CompletableFuture<E> selectById(K id) {
+        return supply(() -> mapper.selectById(id));
+    }
+
+    /**
+     * See {@link AutoMapper#selectAllById(Collection)}.
+     *
+     * @param ids The primary keys.
+     * @return The future of the entities.
+     */
+    public CompletableFuture<List<E>> selectAllById(Collection<K> ids) {
+        return supply(() -> mapper.selectAllById(ids));
+    }
+
+    /**
+     * See {@link AutoMapper#existsById(Object)}.
+     *
+     * @param id The primary key.
+     * @return The future of whether the entity exists.
+     */
+    public CompletableFuture<Boolean> existsById(K id) {
+        return supply(() -> mapper.existsById(id));
+    }
+
+    /**
+     * See {@link AutoMapper#existsAllById(Collection)}.
+     *
+     * @param ids The primary keys.
+     * @return The future of the existing primary keys.
+     */
+    public CompletableFuture<Set<K>> existsAllById(Collection<K> ids) {
+        return supply(() -> mapper.existsAllById(ids));
+    }
+
+    /**
+     * See {@link AutoMapper#selectProjectionById(Object, Class)}.
+     *
+     * @param id         The primary key.
+     * @param projection The projection type.
+     * @param <P>        The projection type.
+     * @return The future of the projection, or of {@code null} if the entity does not exist.
+     */
+    public <P> CompletableFuture<P> selectProjectionById(K id, Class<P> projection) {
+        return supply(() -> mapper.selectProjectionById(id, projection));
+    }
+
+    /**
+     * See {@link AutoMapper#selectAllProjectionById(Collection, Class)}.
+     *
+     * @param ids        The primary keys.
+     * @param projection The projection type.
+     * @param <P>        The projection type.
+     * @return The future of the projections.
+     */
+    public <P> CompletableFuture<List<P>> selectAllProjectionById(Collection<K> ids, Class<P> projection) {
+        return supply(() -> mapper.selectAllProjectionById(ids, projection));
+    }
+
+    /**
+     * See {@link AutoMapper#selectAllByColumn(String, Object)}.
+     *
+     * @param column The column name.
+     * @param value  The column value.
+     * @return The future of the entities.
+     */
+    public CompletableFuture<List<E>> selectAllByColumn(String column, Object value) {
+        return supply(() -> mapper.selectAllByColumn(column, value));
+    }
+
+    /**
+     * See {@link AutoMapper#selectAllByCriteria(Criteria)}.
+     *
+     * @param criteria The criteria.
+     * @return The future of the entities.
+     */
+    public CompletableFuture<List<E>> selectAllByCriteria(Criteria criteria) {
+        return supply(() -> mapper.selectAllByCriteria(criteria));
+    }
+
+    /**
+     * See {@link AutoMapper#selectAll()}.
+     *
+     * @return The future of all entities.
+     */
+    public CompletableFuture<List<E>> selectAll() {
+        return supply(mapper::selectAll);
+    }
+
+    /**
+     * See {@link AutoMapper#selectPageAfter(Object, int)}.
+     *
+     * @param lastId The last primary key of the previous page, or {@code null} for the first page.
+     * @param limit  The maximum count of entities.
+     * @return The future of the page.
+     */
+    public CompletableFuture<List<E>> selectPageAfter(K lastId, int limit) {
+        return supply(() -> mapper.selectPageAfter(lastId, limit));
+    }
+
+    /**
+     * See {@link AutoMapper#selectPageByColumnAfter(String, Object, Object, int)}.
+     *
+     * @param column The column name.
+     * @param value  The column value.
+     * @param lastId The last primary key of the previous page, or {@code null} for the first page.
+     * @param limit  The maximum count of entities.
+     * @return The future of the page.
+     */
+    public CompletableFuture<List<E>> selectPageByColumnAfter(String column, Object value, K lastId, int limit) {
+        return supply(() -> mapper.selectPageByColumnAfter(column, value, lastId, limit));
+    }
+
+    /**
+     * See {@link AutoMapper#countAll()}.
+     *
+     * @return The future of the count of all rows.
+     */
+    public CompletableFuture<Long> countAll() {
+        return supply(mapper::countAll);
+    }
+
+    /**
+     * See {@link AutoMapper#countAllApproximate()}.
+     *
+     * @return The future of the estimated count of all rows.
+     */
+    public CompletableFuture<Long> countAllApproximate() {
+        return supply(mapper::countAllApproximate);
+    }
+
+    /**
+     * See {@link AutoMapper#countByColumn(String, Object)}.
+     *
+     * @param column The column name or the field name.
+     * @param value  The value of the column.
+     * @return The future of the count of the rows.
+     */
+    public CompletableFuture<Long> countByColumn(String column, Object value) {
+        return supply(() -> mapper.countByColumn(column, value));
+    }
+
+    /**
+     * See {@link AutoMapper#countByCriteria(Criteria)}.
+     *
+     * @param criteria The criteria.
+     * @return The future of the count of the rows.
+     */
+    public CompletableFuture<Long> countByCriteria(Criteria criteria) {
+        return supply(() -> mapper.countByCriteria(criteria));
+    }
+
+    /**
+     * See {@link AutoMapper#update(Object)}.
+     *
+     * @param entity The entity.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> update(E entity) {
+        return supply(() -> mapper.update(entity));
+    }
+
+    /**
+     * See {@link AutoMapper#updateChanged(Object)}.
+     *
+     * @param entity The entity.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> updateChanged(E entity) {
+        return supply(() -> mapper.updateChanged(entity));
+    }
+
+    /**
+     * See {@link AutoMapper#updateSelective(Object)}.
+     *
+     * @param entity The entity.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> updateSelective(E entity) {
+        return supply(() -> mapper.updateSelective(entity));
+    }
+
+    /**
+     * See {@link AutoMapper#updateAll(Collection)}.
+     *
+     * @param entities The entities.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> updateAll(Collection<E> entities) {
+        return supply(() -> mapper.updateAll(entities));
+    }
+
+    /**
+     * See {@link AutoMapper#updateAllSelective(Collection)}.
+     *
+     * @param entities The entities.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> updateAllSelective(Collection<E> entities) {
+        return supply(() -> mapper.updateAllSelective(entities));
+    }
+
+    /**
+     * See {@link AutoMapper#updateByColumn(String, Object, Map)}.
+     *
+     * @param column  The column name or the field name.
+     * @param value   The value of the column.
+     * @param updates The new values by the column names or the field names.
+     * @return The future of the count of the updated rows.
+     */
+    public CompletableFuture<Integer> updateByColumn(String column, Object value, Map<String, ?> updates) {
+        return supply(() -> mapper.updateByColumn(column, value, updates));
+    }
+
+    /**
+     * See {@link AutoMapper#deleteById(Object)}.
+     *
+     * @param id The primary key.
+     * @return The future of the count of the deleted rows.
+     */
+    public CompletableFuture<Integer> deleteById(K id) {
+        return supply(() -> mapper.deleteById(id));
+    }
+
+    /**
+     * See {@link AutoMapper#deleteAllById(Collection)}.
+     *
+     * @param ids The primary keys.
+     * @return The future of the count of the deleted rows.
+     */
+    public CompletableFuture<Integer> deleteAllById(Collection<K> ids) {
+        return supply(() -> mapper.deleteAllById(ids));
+    }
+
+    /**
+     * See {@link AutoMapper#deleteByColumn(String, Object)}.
+     *
+     * @param column The column name or the field name.
+     * @param value  The value of the column.
+     * @return The future of the count of the deleted rows.
+     */
+    public CompletableFuture<Integer> deleteByColumn(String column, Object value) {
+        return supply(() -> mapper.deleteByColumn(column, value));
+    }
+
+    /**
+     * See {@link AutoMapper#deleteAll()}.
+     *
+     * @return The future completed when all rows are deleted.
+     */
+    public CompletableFuture<Void> deleteAll() {
+        return CompletableFuture.runAsync(mapper::deleteAll, executor);
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> statement) {
+        return CompletableFuture.supplyAsync(statement, executor);
+    }
+
+    // Created on the first use, so nothing is started if the asynchronous mappers are never used
+    private static final class DefaultExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            try {
+                // Looked up reflectively, so it is still compatible with Java 17
+                ExecutorService executor = (ExecutorService) MethodHandles.publicLookup()
+                        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                MethodType.methodType(ExecutorService.class))
+                        .invoke();
+                LOG.info("Execute the asynchronous mappers on virtual threads");
+                return executor;
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                LOG.info("Virtual threads are not available, execute the asynchronous mappers on a cached thread pool");
+                return Executors.newCachedThreadPool(new DaemonThreadFactory());
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not create the executor of the asynchronous mappers", e);
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "async-auto-mapper-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -21,9 +21,15 @@ import org.apache.ibatis.annotations.InsertProvider;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * The auto mapper, inherit this interface to get some basic CRUD methods.
@@ -52,6 +58,40 @@ public interface AutoMapper<E, K> {
     @InsertProvider(AutoMapperProvider.class)
     int insertAll(@Param("entities") Collection<E> entities);
 
+    /**
+     * Insert multiple entities in JDBC batches. The SQL of {@link #insert(Object)} is prepared once
+     * and executed for every entity, instead of building a multi-row insert whose SQL grows with the entities.
+     * The keys generated by DB are filled back to the entities as well.
+     *
+     * @param entities  Entities to be inserted.
+     * @param batchSize The count of entities sent to DB in a batch.
+     * @return Inserted count.
+     */
+    @InsertProvider(AutoMapperProvider.class)
+    int insertAllInBatch(@Param("entities") Collection<E> entities, @Param("batchSize") int batchSize);
+
+    /**
+     * Insert the entity, or update all its fields if its ID exists, by a single statement of the DB dialect:
+     * {@code MERGE} by default, {@code ON CONFLICT} for PostgreSQL, {@code ON DUPLICATE KEY UPDATE} for MySQL.
+     * The ID of the entity must be set. The entities with a {@link Version} are not supported.
+     *
+     * @param entity Entity to be inserted or updated.
+     * @return The affected count reported by DB, MySQL reports {@code 2} for an update.
+     */
+    @InsertProvider(AutoMapperProvider.class)
+    int insertOrUpdate(@Param("entity") E entity);
+
+    /**
+     * Insert the entities, or update them if their IDs exist, by {@link #insertOrUpdate(Object)}
+     * executed in JDBC batches. The IDs of the entities must be set. The entities with a {@link Version} are not
+     * supported.
+     *
+     * @param entities Entities to be inserted or updated.
+     * @return The affected count reported by DB.
+     */
+    @InsertProvider(AutoMapperProvider.class)
+    int insertAllOrUpdate(@Param("entities") Collection<E> entities);
+
     /**
      * Select an entity by the ID.
      *
@@ -70,16 +110,105 @@ public interface AutoMapper<E, K> {
     @SelectProvider(AutoMapperProvider.class)
     List<E> selectAllById(@Param("ids") Collection<K> ids);
 
+    /**
+     * Whether an entity of the ID exists, only the ID is selected.
+     *
+     * @param id Entity ID.
+     * @return {@code true} if the entity exists.
+     */
+    default boolean existsById(K id) {
+        Objects.requireNonNull(id, "ID is null");
+        return !existsAllById(List.of(id)).isEmpty();
+    }
+
+    /**
+     * Select the IDs of the collection whose entities exist, only the IDs are selected.
+     *
+     * @param ids ID collection.
+     * @return The existing IDs.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    Set<K> existsAllById(@Param("ids") Collection<K> ids);
+
+    /**
+     * Select the columns of a projection by the ID. The projection is a record whose components, or an interface
+     * whose getters are named after the fields of the entity, only the columns of these fields are selected.
+     *
+     * @param id         ID
+     * @param projection The record or interface type of the projection.
+     * @param <P>        The type of the projection.
+     * @return Selected projection.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    <P> P selectProjectionById(@Param("id") K id, @Param("projection") Class<P> projection);
+
+    /**
+     * Select the columns of a projection by the ID collection. The projection is a record whose components,
+     * or an interface whose getters are named after the fields of the entity, only the columns of these fields
+     * are selected.
+     *
+     * @param ids        ID collection.
+     * @param projection The record or interface type of the projection.
+     * @param <P>        The type of the projection.
+     * @return Selected projections.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    <P> List<P> selectAllProjectionById(@Param("ids") Collection<K> ids, @Param("projection") Class<P> projection);
+
     /**
      * Select entities by a column.
      *
-     * @param column Column name.
+     * @param column The column name or the field name.
      * @param value  The value to be selected of the {@code column.}
      * @return Selected entities.
      */
     @SelectProvider(AutoMapperProvider.class)
     List<E> selectAllByColumn(@Param("column") String column, @Param("value") Object value);
 
+    /**
+     * Select entities by the criteria, see {@link Criteria}.
+     *
+     * @param criteria The criteria.
+     * @return Selected entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    List<E> selectAllByCriteria(@Param("criteria") Criteria criteria);
+
+    /**
+     * Select entities by a column, the entities are fetched from DB incrementally while iterating the cursor.
+     * <p><b>Note:</b> The cursor must be consumed and closed within a transaction.
+     *
+     * @param column Column name.
+     * @param value  The value to be selected of the {@code column.}
+     * @return The cursor of the selected entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    Cursor<E> selectAllByColumnCursor(@Param("column") String column, @Param("value") Object value);
+
+    /**
+     * Select entities by a column, the entities are fetched from DB incrementally while consuming the stream.
+     * <p><b>Note:</b> The stream must be consumed and closed within a transaction.
+     *
+     * @param column Column name.
+     * @param value  The value to be selected of the {@code column.}
+     * @return The stream of the selected entities.
+     */
+    default Stream<E> selectAllByColumnStream(String column, Object value) {
+        return MybatisHelper.toStream(selectAllByColumnCursor(column, value));
+    }
+
+    /**
+     * Select entities by a column, each entity is passed to the {@code resultHandler} as soon as it is fetched,
+     * without holding all entities in memory.
+     *
+     * @param column        Column name.
+     * @param value         The value to be selected of the {@code column.}
+     * @param resultHandler The handler of each selected entity.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    void selectAllByColumnWithHandler(@Param("column") String column, @Param("value") Object value,
+                                      ResultHandler<E> resultHandler);
+
     /**
      * Select all entities.
      *
@@ -88,6 +217,59 @@ public interface AutoMapper<E, K> {
     @SelectProvider(AutoMapperProvider.class)
     List<E> selectAll();
 
+    /**
+     * Select all entities, the entities are fetched from DB incrementally while iterating the cursor.
+     * <p><b>Note:</b> The cursor must be consumed and closed within a transaction.
+     *
+     * @return The cursor of all entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    Cursor<E> selectAllCursor();
+
+    /**
+     * Select all entities, the entities are fetched from DB incrementally while consuming the stream.
+     * <p><b>Note:</b> The stream must be consumed and closed within a transaction.
+     *
+     * @return The stream of all entities.
+     */
+    default Stream<E> selectAllStream() {
+        return MybatisHelper.toStream(selectAllCursor());
+    }
+
+    /**
+     * Select all entities, each entity is passed to the {@code resultHandler} as soon as it is fetched,
+     * without holding all entities in memory.
+     *
+     * @param resultHandler The handler of each selected entity.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    void selectAllWithHandler(ResultHandler<E> resultHandler);
+
+    /**
+     * Select a page of entities ordered by the ID, the page starts after the {@code lastId}.
+     * It seeks the page by the ID instead of skipping the rows before it, so every page costs the same.
+     *
+     * @param lastId The last ID of the previous page, {@code null} to select the first page.
+     * @param limit  The maximum count of entities in the page.
+     * @return Selected entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    List<E> selectPageAfter(@Param("lastId") K lastId, @Param("limit") int limit);
+
+    /**
+     * Select a page of entities by a column ordered by the ID, the page starts after the {@code lastId}.
+     * It seeks the page by the ID instead of skipping the rows before it, so every page costs the same.
+     *
+     * @param column Column name.
+     * @param value  The value to be selected of the {@code column.}
+     * @param lastId The last ID of the previous page, {@code null} to select the first page.
+     * @param limit  The maximum count of entities in the page.
+     * @return Selected entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    List<E> selectPageByColumnAfter(@Param("column") String column, @Param("value") Object value,
+                                    @Param("lastId") K lastId, @Param("limit") int limit);
+
     /**
      * Count all entities.
      *
@@ -96,6 +278,35 @@ public interface AutoMapper<E, K> {
     @SelectProvider(AutoMapperProvider.class)
     long countAll();
 
+    /**
+     * Estimate the count of all entities from the statistics of DB, instead of scanning the table.
+     * It is counted exactly if the {@link Dialect} has no statistics. The count is cached for the TTL set by
+     * {@link AutoMapperProcessor#setApproximateCountTtlSeconds(long)}.
+     *
+     * @return The estimated count of all entities.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    long countAllApproximate();
+
+    /**
+     * Count the entities by a column.
+     *
+     * @param column The column name or the field name.
+     * @param value  The value to be counted of the {@code column}.
+     * @return The count.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    long countByColumn(@Param("column") String column, @Param("value") Object value);
+
+    /**
+     * Count the entities by the criteria, the orders and the limit of the criteria are ignored.
+     *
+     * @param criteria The criteria.
+     * @return The count.
+     */
+    @SelectProvider(AutoMapperProvider.class)
+    long countByCriteria(@Param("criteria") Criteria criteria);
+
     /**
      * Delete an entity by ID
      *
@@ -115,7 +326,18 @@ public interface AutoMapper<E, K> {
     int deleteAllById(@Param("ids") Collection<K> ids);
 
     /**
-     * Delete all entities using the SQL {@code truncate table <table_name>}.
+     * Delete the entities by a column using a single statement.
+     *
+     * @param column The column name or the field name.
+     * @param value  The value of the {@code column} to be deleted.
+     * @return Deleted count.
+     */
+    @DeleteProvider(AutoMapperProvider.class)
+    int deleteByColumn(@Param("column") String column, @Param("value") Object value);
+
+    /**
+     * Delete all entities using the {@link Dialect#deleteAll(String) SQL of the dialect}, a {@code truncate table}
+     * on the built-in DBs, otherwise a {@code delete} without condition.
      */
     @DeleteProvider(AutoMapperProvider.class)
     void deleteAll();
@@ -132,16 +354,29 @@ public interface AutoMapper<E, K> {
     int update(@Param("entity") E entity);
 
     /**
-     * Update entities by their ID.
+     * Update the changed columns of an entity by the ID, including the columns changed to {@code null}.
+     * <p>The columns are compared with the snapshot taken when the entity was loaded by {@code selectById} or
+     * {@code selectAllById}, if the entity is annotated by {@link DirtyTracking}. Nothing is executed if no column
+     * is changed, then {@code 0} is returned. All columns are updated if the entity has no snapshot.
+     *
+     * @param entity The entity to be updated.
+     * @return Updated count.
+     */
+    @UpdateProvider(AutoMapperProvider.class)
+    int updateChanged(@Param("entity") E entity);
+
+    /**
+     * Update entities by their ID, the entities are sent to DB in JDBC batches.
+     * Without the {@link AutoMapperProcessor}, they are updated by a single statement instead, which rejects the
+     * entities with a {@link Version}, as it could not tell which of them are stale.
      * <p><b>Note:</b> If fields in the entity are passed {@code null} values,
      * the column values in DB are updated to be {@code null}.
      *
      * @param entities Entities to be updated.
      * @return Updated count.
      */
-    default int updateAll(Collection<E> entities) {
-        return entities.stream().map(this::update).mapToInt(Integer::intValue).sum();
-    }
+    @UpdateProvider(AutoMapperProvider.class)
+    int updateAll(@Param("entities") Collection<E> entities);
 
     /**
      * Selectively update an entity by the ID.
@@ -154,13 +389,28 @@ public interface AutoMapper<E, K> {
     int updateSelective(@Param("entity") E entity);
 
     /**
-     * Selectively update entities by their ID.
+     * Selectively update entities by their ID, the entities are sent to DB in JDBC batches.
      * If a field in entity is passed {@code null} value, it will not be updated.
+     * The entities with the same {@code null} fields share a prepared statement.
+     * Without the {@link AutoMapperProcessor}, they are updated by a single statement instead, which rejects the
+     * entities with a {@link Version}, as it could not tell which of them are stale.
      *
      * @param entities Entities to be updated.
      * @return Updated count.
      */
-    default int updateAllSelective(Collection<E> entities) {
-        return entities.stream().map(this::updateSelective).mapToInt(Integer::intValue).sum();
-    }
+    @UpdateProvider(AutoMapperProvider.class)
+    int updateAllSelective(@Param("entities") Collection<E> entities);
+
+    /**
+     * Update the entities by a column using a single statement. The version of the entities with a {@link Version}
+     * is incremented, but not checked.
+     *
+     * @param column  The column name or the field name.
+     * @param value   The value of the {@code column} to be updated.
+     * @param updates The new values by the column names or the field names.
+     * @return Updated count.
+     */
+    @UpdateProvider(AutoMapperProvider.class)
+    int updateByColumn(@Param("column") String column, @Param("value") Object value,
+                       @Param("updates") Map<String, ?> updates);
 }
@@ -0,0 +1,738 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Intercept the executions of the {@link AutoMapper} statements which can not be done by a single SQL.
+ * <p>The ID collections of {@code selectAllById}, {@code existsAllById} and {@code deleteAllById} are split into
+ * chunks of at most {@code maxIdsPerStatement} IDs, capped by the bind parameters of the {@link Dialect}, the results
+ * of the chunks are merged and their counts are summed.
+ * Each chunk is padded to a power of two by repeating its last ID, so only a few distinct SQL are prepared
+ * no matter how many IDs are passed.
+ * <p>The entities of the batch statements, such as {@code insertAllInBatch} and {@code updateAll}, are executed
+ * one by one by the single entity statement through a {@link ExecutorType#BATCH BATCH} executor sharing
+ * the transaction of the current one. The entities of {@code updateAllSelective} are grouped by their
+ * {@code null} fields first, so the entities of a group share the same SQL and prepared statement.
+ * <p>The entities of {@code insertAll} are inserted by JDBC batches if the {@link Dialect} prefers them,
+ * otherwise by multi-row inserts of at most as many rows as the dialect allows per statement.
+ * <p>The statements of the entities annotated by {@link EntityCache} read through or invalidate the cache.
+ * {@code selectAllById} only selects the IDs missing in the cache. The invalidated entries are invalidated
+ * again after the transaction completes, so no entity loaded by a concurrent transaction stays stale.
+ * Until then the transaction bypasses the cache, so its uncommitted entities are never cached.
+ * <p>The entities annotated by {@link DirtyTracking} are snapshotted when they are selected by ID,
+ * {@code updateChanged} is skipped if the entity has not changed since, otherwise it refreshes the snapshot.
+ * The snapshots refreshed by a transaction are dropped if it rolls back, so the entities are updated in full again.
+ * <p>The updates of the entities with a {@link Version} throw an {@link OptimisticLockException} if they match no
+ * row, otherwise the versions of the entities are incremented. The batched updates are checked when flushed.
+ * <p>The estimated count of {@code countAllApproximate} is cached for {@code approximateCountTtlSeconds}.
+ * It is counted by {@code countAll} if the statistics of DB have no estimate.
+ * <p>The projection statements, such as {@code selectProjectionById}, are executed by a statement derived for
+ * each projection type, which selects only the projected columns into a map converted into the projection.
+ *
+ * @author Richard Zhang
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+class AutoMapperInterceptor implements Interceptor {
+
+    private final Set<String> idsStatements = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, BatchStatement> batchStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, BatchStatement> insertAllStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, Class<?>> projectionStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, Class<?>> cachedStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, Class<?>> trackedStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, Class<?>> versionedStatements = new ConcurrentHashMap<>();
+
+    /** The {@code countAll} statements of the {@code countAllApproximate} statements */
+    private final Map<String, String> approximateCountStatements = new ConcurrentHashMap<>();
+
+    private final Map<String, ApproximateCount> approximateCounts = new ConcurrentHashMap<>();
+
+    /** The statements derived from the projection statements, by the projection type and the count of IDs */
+    private final Map<String, MappedStatement> derivedStatements = new ConcurrentHashMap<>();
+
+    private final int maxIdsPerStatement;
+
+    private final int batchSize;
+
+    private final Dialect dialect;
+
+    private final long approximateCountTtlNanos;
+
+    AutoMapperInterceptor(int maxIdsPerStatement, int batchSize, Dialect dialect, long approximateCountTtlSeconds) {
+        this.maxIdsPerStatement = Math.max(1, Math.min(maxIdsPerStatement, dialect.getMaxBindParameters()));
+        this.batchSize = batchSize;
+        this.dialect = dialect;
+        this.approximateCountTtlNanos = TimeUnit.SECONDS.toNanos(approximateCountTtlSeconds);
+    }
+
+    void addIdsStatement(String statementId) {
+        idsStatements.add(statementId);
+    }
+
+    void addBatchStatement(String statementId, Class<?> mapperType, String entityStatementId, boolean selective) {
+        batchStatements.put(statementId, new BatchStatement(mapperType, entityStatementId, selective));
+    }
+
+    void addInsertAllStatement(String statementId, Class<?> mapperType, String entityStatementId) {
+        insertAllStatements.put(statementId, new BatchStatement(mapperType, entityStatementId, false));
+    }
+
+    void addApproximateCountStatement(String statementId, String countStatementId) {
+        approximateCountStatements.put(statementId, countStatementId);
+    }
+
+    void addProjectionStatement(String statementId, Class<?> mapperType) {
+        projectionStatements.put(statementId, mapperType);
+    }
+
+    void addCachedStatement(String statementId, Class<?> mapperType) {
+        cachedStatements.put(statementId, mapperType);
+    }
+
+    void addTrackedStatement(String statementId, Class<?> mapperType) {
+        trackedStatements.put(statementId, mapperType);
+    }
+
+    void addVersionedStatement(String statementId, Class<?> mapperType) {
+        versionedStatements.put(statementId, mapperType);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        Executor executor = (Executor) invocation.getTarget();
+
+        Class<?> trackedMapperType = trackedStatements.get(ms.getId());
+        if (trackedMapperType != null) {
+            return executeTracked(invocation, executor, ms, args,
+                    MetaDataCache.getTableInfo(trackedMapperType).getSnapshots());
+        }
+
+        return interceptCached(invocation, executor, ms, args);
+    }
+
+    private Object interceptCached(Invocation invocation, Executor executor, MappedStatement ms, Object[] args)
+            throws Throwable {
+        Class<?> cachedMapperType = cachedStatements.get(ms.getId());
+        if (cachedMapperType != null) {
+            TableInfo tableInfo = MetaDataCache.getTableInfo(cachedMapperType);
+            if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
+                return queryThroughCache(invocation, executor, ms, args, tableInfo.getCache());
+            }
+
+            Object result = interceptVersioned(invocation, executor, ms, args);
+            invalidate(tableInfo, args[1]);
+            return result;
+        }
+
+        return interceptVersioned(invocation, executor, ms, args);
+    }
+
+    private Object interceptVersioned(Invocation invocation, Executor executor, MappedStatement ms, Object[] args)
+            throws Throwable {
+        Class<?> versionedMapperType = versionedStatements.get(ms.getId());
+        if (versionedMapperType != null && args[1] instanceof ParamMap<?> paramMap) {
+            return executeVersioned(invocation, executor, ms, args, paramMap,
+                    MetaDataCache.getTableInfo(versionedMapperType));
+        }
+
+        return intercept(invocation, executor, ms, args);
+    }
+
+    private Object intercept(Invocation invocation, Executor executor, MappedStatement ms, Object[] args)
+            throws Throwable {
+        if (idsStatements.contains(ms.getId()) && args[1] instanceof ParamMap<?> paramMap
+                && paramMap.get(AutoMapperProvider.IDS) instanceof Collection<?> ids && !ids.isEmpty()) {
+            return executeInChunks(executor, ms, args, paramMap, ids);
+        }
+
+        String countStatementId = approximateCountStatements.get(ms.getId());
+        if (countStatementId != null) {
+            return queryApproximateCount(invocation, executor, ms, args, countStatementId);
+        }
+
+        Class<?> projectionMapperType = projectionStatements.get(ms.getId());
+        if (projectionMapperType != null) {
+            return executeProjection(executor, ms, projectionMapperType, (ParamMap<?>) args[1], (RowBounds) args[2]);
+        }
+
+        BatchStatement batchStatement = batchStatements.get(ms.getId());
+        if (batchStatement != null) {
+            return executeInBatch(executor, ms, batchStatement, (ParamMap<?>) args[1]);
+        }
+
+        BatchStatement insertAllStatement = insertAllStatements.get(ms.getId());
+        if (insertAllStatement != null && args[1] instanceof ParamMap<?> paramMap
+                && paramMap.get(AutoMapperProvider.ENTITIES) instanceof Collection<?> entities && !entities.isEmpty()) {
+            return executeInsertAll(invocation, executor, ms, insertAllStatement, paramMap, entities);
+        }
+
+        return invocation.proceed();
+    }
+
+    private Object queryApproximateCount(Invocation invocation, Executor executor, MappedStatement ms, Object[] args,
+                                         String countStatementId) throws Throwable {
+        long now = System.nanoTime();
+        ApproximateCount cached = approximateCounts.get(ms.getId());
+        if (cached != null && now - cached.loadedAt() < approximateCountTtlNanos) {
+            return List.of(cached.count());
+        }
+
+        List<?> result = (List<?>) invocation.proceed();
+        // No statistics, e.g. the table is not analyzed yet
+        if (result.isEmpty() || !(result.get(0) instanceof Number count) || count.longValue() < 0) {
+            result = executor.query(ms.getConfiguration().getMappedStatement(countStatementId), args[1],
+                    (RowBounds) args[2], (ResultHandler<?>) args[3]);
+        }
+
+        if (approximateCountTtlNanos > 0) {
+            approximateCounts.put(ms.getId(), new ApproximateCount(result.get(0), now));
+        }
+        return result;
+    }
+
+    private Object executeInsertAll(Invocation invocation, Executor executor, MappedStatement ms,
+                                    BatchStatement insertAllStatement, ParamMap<?> paramMap, Collection<?> entities)
+            throws Throwable {
+        if (dialect.isJdbcBatchPreferred()) {
+            return executeInBatch(executor,
+                    ms.getConfiguration().getMappedStatement(insertAllStatement.entityStatementId()), entities,
+                    batchSize, null);
+        }
+
+        int columnCount = MetaDataCache.getTableInfo(insertAllStatement.mapperType()).getColumnInfos().size();
+        int rowsPerStatement = Math.max(1,
+                Math.min(dialect.getMaxRowsPerInsert(), dialect.getMaxBindParameters() / columnCount));
+        if (entities.size() <= rowsPerStatement) {
+            return invocation.proceed();
+        }
+
+        // Each chunk is a distinct ParamMap sharing the entities, so the generated keys are still set on them.
+        // Every parameter name of the entities, such as param1, references the chunk instead of all the entities.
+        List<Object> entityList = new ArrayList<>(entities);
+        int count = 0;
+        for (int from = 0; from < entityList.size(); from += rowsPerStatement) {
+            count += executor.update(ms, replaceIds(paramMap, entities,
+                    entityList.subList(from, Math.min(from + rowsPerStatement, entityList.size()))));
+        }
+        return count;
+    }
+
+    private Object executeVersioned(Invocation invocation, Executor executor, MappedStatement ms, Object[] args,
+                                    ParamMap<?> paramMap, TableInfo tableInfo) throws Throwable {
+        ColumnInfo versionColumnInfo = tableInfo.getVersionColumnInfo();
+        if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+            Collection<?> entities = paramMap.containsKey(AutoMapperProvider.ENTITIES)
+                    ? (Collection<?>) paramMap.get(AutoMapperProvider.ENTITIES)
+                    : Collections.singletonList(paramMap.get(AutoMapperProvider.ENTITY));
+            if (entities != null) {
+                for (Object entity : entities) {
+                    if (entity != null && versionColumnInfo.getValue(entity) == null)
+                        versionColumnInfo.setValue(entity, toVersion(versionColumnInfo, 0));
+                }
+            }
+            return intercept(invocation, executor, ms, args);
+        }
+
+        Object entity = paramMap.get(AutoMapperProvider.ENTITY);
+        if (entity != null)
+            requireNonNull(versionColumnInfo.getValue(entity), "Version of the updated entity is null");
+
+        int count = (Integer) intercept(invocation, executor, ms, args);
+        // The batched updates are checked when they are flushed
+        if (count != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            checkVersion(tableInfo, entity, count);
+        }
+        return count;
+    }
+
+    private static void checkVersion(TableInfo tableInfo, Object entity, int count) {
+        if (count == 0) {
+            throw new OptimisticLockException(tableInfo.getTableName(),
+                    tableInfo.getPrimaryKeyColumnInfo().getValue(entity), entity);
+        }
+
+        ColumnInfo versionColumnInfo = tableInfo.getVersionColumnInfo();
+        long version = ((Number) versionColumnInfo.getValue(entity)).longValue();
+        versionColumnInfo.setValue(entity, toVersion(versionColumnInfo, version + 1));
+    }
+
+    private static Object toVersion(ColumnInfo versionColumnInfo, long version) {
+        Class<?> type = versionColumnInfo.getJavaType();
+        return type == Long.class || type == long.class ? (Object) version : (Object) (int) version;
+    }
+
+    private Object executeTracked(Invocation invocation, Executor executor, MappedStatement ms, Object[] args,
+                                  EntitySnapshots snapshots) throws Throwable {
+        if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
+            Object result = interceptCached(invocation, executor, ms, args);
+            for (Object entity : (List<?>) result) {
+                if (entity != null)
+                    snapshots.takeIfAbsent(entity);
+            }
+            return result;
+        }
+
+        Object entity = ((ParamMap<?>) args[1]).get(AutoMapperProvider.ENTITY);
+        if (entity != null) {
+            Set<ColumnInfo> changedColumns = snapshots.getChangedColumns(entity);
+            if (changedColumns != null && changedColumns.isEmpty()) {
+                return 0;
+            }
+        }
+
+        Object result = interceptCached(invocation, executor, ms, args);
+        if (entity != null) {
+            snapshots.take(entity);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                PendingSnapshots pendingSnapshots =
+                        (PendingSnapshots) TransactionSynchronizationManager.getResource(snapshots);
+                if (pendingSnapshots == null) {
+                    pendingSnapshots = new PendingSnapshots(snapshots);
+                    TransactionSynchronizationManager.bindResource(snapshots, pendingSnapshots);
+                    TransactionSynchronizationManager.registerSynchronization(pendingSnapshots);
+                }
+                pendingSnapshots.entities.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private Object executeInChunks(Executor executor, MappedStatement ms, Object[] args, ParamMap<?> paramMap,
+                                   Collection<?> ids) throws SQLException {
+        if (args.length == 2) {
+            int count = 0;
+            for (List<Object> chunk : chunk(ids)) {
+                count += executor.update(ms, replaceIds(paramMap, ids, chunk));
+            }
+            return count;
+        }
+        return queryInChunks(executor, ms, args, paramMap, ids);
+    }
+
+    private List<Object> queryInChunks(Executor executor, MappedStatement ms, Object[] args, ParamMap<?> paramMap,
+                                       Collection<?> ids) throws SQLException {
+        List<List<Object>> chunks = chunk(ids);
+        List<Object> result = new ArrayList<>(ids.size());
+        for (List<Object> chunk : chunks) {
+            result.addAll(executor.query(ms, replaceIds(paramMap, ids, chunk), (RowBounds) args[2],
+                    (ResultHandler<?>) args[3]));
+        }
+        return result;
+    }
+
+    private Object queryThroughCache(Invocation invocation, Executor executor, MappedStatement ms, Object[] args,
+                                     PrimaryKeyCache cache) throws Throwable {
+        ParamMap<?> paramMap = (ParamMap<?>) args[1];
+        boolean many = paramMap.containsKey(AutoMapperProvider.IDS);
+        Collection<?> ids = many ? (Collection<?>) paramMap.get(AutoMapperProvider.IDS)
+                : Collections.singletonList(paramMap.get(AutoMapperProvider.ID));
+        if (ids == null || ids.isEmpty()) {
+            return invocation.proceed();
+        }
+
+        // The writes of the current transaction are not committed yet, they must neither be cached nor hidden
+        if (TransactionSynchronizationManager.hasResource(cache)) {
+            return interceptVersioned(invocation, executor, ms, args);
+        }
+
+        List<Object> result = new ArrayList<>(ids.size());
+        List<Object> missingIds = new ArrayList<>();
+        for (Object id : ids) {
+            Object entity = id == null ? null : cache.get(id);
+            if (entity != null) {
+                result.add(entity);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        // Read the generation before the select, so the entities are not cached if an invalidation happens meanwhile
+        long generation = cache.generation();
+        List<Object> selected = many
+                ? queryInChunks(executor, ms, args, replaceIds(paramMap, ids, missingIds), missingIds)
+                : executor.query(ms, paramMap, (RowBounds) args[2], (ResultHandler<?>) args[3]);
+        cache.putAll(selected, generation);
+
+        result.addAll(selected);
+        return result;
+    }
+
+    private static void invalidate(TableInfo tableInfo, Object parameter) {
+        PrimaryKeyCache cache = tableInfo.getCache();
+        List<Object> ids = getInvalidatedIds(tableInfo, parameter);
+        if (ids == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(ids);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingInvalidation pendingInvalidation =
+                    (PendingInvalidation) TransactionSynchronizationManager.getResource(cache);
+            if (pendingInvalidation == null) {
+                pendingInvalidation = new PendingInvalidation(cache);
+                TransactionSynchronizationManager.bindResource(cache, pendingInvalidation);
+                TransactionSynchronizationManager.registerSynchronization(pendingInvalidation);
+            }
+            pendingInvalidation.add(ids);
+        }
+    }
+
+    // The IDs of the entities or the IDs of the statement, or null if the statement affects the whole table
+    private static List<Object> getInvalidatedIds(TableInfo tableInfo, Object parameter) {
+        if (!(parameter instanceof ParamMap<?> paramMap)) {
+            return null;
+        }
+
+        ColumnInfo primaryKeyColumnInfo = tableInfo.getPrimaryKeyColumnInfo();
+        List<Object> ids = new ArrayList<>();
+        if (paramMap.containsKey(AutoMapperProvider.ENTITY)) {
+            ids.add(primaryKeyColumnInfo.getValue(paramMap.get(AutoMapperProvider.ENTITY)));
+        } else if (paramMap.containsKey(AutoMapperProvider.ENTITIES)) {
+            for (Object entity : (Collection<?>) paramMap.get(AutoMapperProvider.ENTITIES)) {
+                ids.add(primaryKeyColumnInfo.getValue(entity));
+            }
+        } else if (paramMap.containsKey(AutoMapperProvider.ID)) {
+            ids.add(paramMap.get(AutoMapperProvider.ID));
+        } else if (paramMap.containsKey(AutoMapperProvider.IDS)) {
+            ids.addAll((Collection<?>) paramMap.get(AutoMapperProvider.IDS));
+        } else {
+            return null;
+        }
+        return ids;
+    }
+
+    private List<Object> executeProjection(Executor executor, MappedStatement ms, Class<?> mapperType,
+                                           ParamMap<?> paramMap, RowBounds rowBounds) throws SQLException {
+        Class<?> projectionType = (Class<?>) paramMap.get(AutoMapperProvider.PROJECTION);
+        requireNonNull(projectionType, "Projection is null");
+        Projection projection = MetaDataCache.getProjection(mapperType, projectionType);
+
+        List<Object> rows = new ArrayList<>();
+        if (paramMap.containsKey(AutoMapperProvider.IDS)) {
+            Collection<?> ids = (Collection<?>) paramMap.get(AutoMapperProvider.IDS);
+            AutoMapperProvider.checkArgument(ids, AutoMapperProvider.IDS_IS_EMPTY);
+
+            for (List<Object> chunk : chunk(ids)) {
+                rows.addAll(executor.query(deriveStatement(ms, mapperType, projection, chunk.size()),
+                        replaceIds(paramMap, ids, chunk), rowBounds, Executor.NO_RESULT_HANDLER));
+            }
+        } else {
+            requireNonNull(paramMap.get(AutoMapperProvider.ID), AutoMapperProvider.ID_IS_NULL);
+
+            rows.addAll(executor.query(deriveStatement(ms, mapperType, projection, 0), paramMap, rowBounds,
+                    Executor.NO_RESULT_HANDLER));
+        }
+
+        List<Object> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> values = (Map<String, Object>) row;
+            result.add(projection.convert(values));
+        }
+        return result;
+    }
+
+    // The count of IDs is 0 for a single ID, the chunks are padded, so only a few statements are derived
+    private MappedStatement deriveStatement(MappedStatement ms, Class<?> mapperType, Projection projection,
+                                            int idCount) {
+        String id = ms.getId() + "-" + projection.getType().getName() + "-" + idCount;
+        return derivedStatements.computeIfAbsent(id, key -> {
+            Configuration configuration = ms.getConfiguration();
+            TableInfo tableInfo = MetaDataCache.getTableInfo(mapperType);
+            String sql = idCount == 0
+                    ? AutoMapperProvider.selectByIdSql(tableInfo, projection.getSelectColumns())
+                    : AutoMapperProvider.selectAllByIdSql(tableInfo, projection.getSelectColumns(), idCount);
+            ResultMap resultMap = MybatisHelper.buildResultMap(configuration, id + "-Inline", HashMap.class,
+                    projection.getColumnInfos(), null);
+
+            return new MappedStatement.Builder(configuration, id,
+                    new RawSqlSource(configuration, sql, ParamMap.class), SqlCommandType.SELECT)
+                    .resource(ms.getResource())
+                    .databaseId(ms.getDatabaseId())
+                    .statementType(ms.getStatementType())
+                    .fetchSize(ms.getFetchSize())
+                    .timeout(ms.getTimeout())
+                    .resultMaps(List.of(resultMap))
+                    .build();
+        });
+    }
+
+    private int executeInBatch(Executor executor, MappedStatement ms, BatchStatement batchStatement,
+                               ParamMap<?> paramMap) throws SQLException {
+        Collection<?> entities = (Collection<?>) paramMap.get(AutoMapperProvider.ENTITIES);
+        if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+            AutoMapperProvider.checkArgument(entities, "Entities is null or empty");
+        } else {
+            requireNonNull(entities, AutoMapperProvider.ENTITIES_IS_NULL);
+        }
+
+        int size = paramMap.containsKey(AutoMapperProvider.BATCH_SIZE)
+                ? (Integer) paramMap.get(AutoMapperProvider.BATCH_SIZE) : batchSize;
+        if (size < 1)
+            throw new IllegalArgumentException("Batch size must be positive");
+
+        TableInfo tableInfo = MetaDataCache.getTableInfo(batchStatement.mapperType());
+        if (batchStatement.selective())
+            entities = groupByNullFields(tableInfo, entities);
+
+        // The versions of the inserted entities are initialized by the entity statement
+        TableInfo versionedTableInfo = ms.getSqlCommandType() == SqlCommandType.UPDATE
+                && tableInfo.getVersionColumnInfo() != null ? tableInfo : null;
+        return executeInBatch(executor, ms.getConfiguration().getMappedStatement(batchStatement.entityStatementId()),
+                entities, size, versionedTableInfo);
+    }
+
+    private static int executeInBatch(Executor executor, MappedStatement entityStatement, Collection<?> entities,
+                                      int batchSize, TableInfo versionedTableInfo) throws SQLException {
+        // Share the transaction, so the batch executor must not be closed, otherwise the connection is closed
+        Executor batchExecutor = entityStatement.getConfiguration()
+                .newExecutor(executor.getTransaction(), ExecutorType.BATCH);
+        executor.clearLocalCache();
+
+        int count = 0;
+        int batched = 0;
+        try {
+            for (Object entity : entities) {
+                ParamMap<Object> entityParam = new ParamMap<>();
+                entityParam.put(AutoMapperProvider.ENTITY, entity);
+                batchExecutor.update(entityStatement, entityParam);
+
+                if (++batched == batchSize) {
+                    count += sumUpdateCounts(batchExecutor.flushStatements(), versionedTableInfo);
+                    batched = 0;
+                }
+            }
+            count += sumUpdateCounts(batchExecutor.flushStatements(), versionedTableInfo);
+        } finally {
+            // Close the statements not flushed, the transaction is not rolled back
+            batchExecutor.rollback(false);
+        }
+        return count;
+    }
+
+    // The batch executor only reuses the prepared statement of the last SQL, so the same SQL must be consecutive
+    private static List<Object> groupByNullFields(TableInfo tableInfo, Collection<?> entities) {
+        List<ColumnInfo> columnInfos = tableInfo.getColumnInfos();
+        Map<BitSet, List<Object>> groups = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            BitSet nullFields = new BitSet(columnInfos.size());
+            for (int i = 0; i < columnInfos.size(); i++) {
+                if (isNull(columnInfos.get(i).getValue(entity)))
+                    nullFields.set(i);
+            }
+            groups.computeIfAbsent(nullFields, key -> new ArrayList<>()).add(entity);
+        }
+
+        List<Object> groupedEntities = new ArrayList<>(entities.size());
+        groups.values().forEach(groupedEntities::addAll);
+        return groupedEntities;
+    }
+
+    private static int sumUpdateCounts(List<BatchResult> batchResults, TableInfo versionedTableInfo) {
+        int count = 0;
+        for (BatchResult batchResult : batchResults) {
+            int[] updateCounts = batchResult.getUpdateCounts();
+            for (int i = 0; i < updateCounts.length; i++) {
+                // Some drivers only know the statement succeeded, but not its count
+                int updateCount = updateCounts[i] == Statement.SUCCESS_NO_INFO ? 1 : updateCounts[i];
+                if (versionedTableInfo != null) {
+                    Map<?, ?> entityParam = (Map<?, ?>) batchResult.getParameterObjects().get(i);
+                    checkVersion(versionedTableInfo, entityParam.get(AutoMapperProvider.ENTITY), updateCount);
+                }
+                count += updateCount;
+            }
+        }
+        return count;
+    }
+
+    private List<List<Object>> chunk(Collection<?> ids) {
+        List<List<Object>> chunks = new ArrayList<>(ids.size() / maxIdsPerStatement + 1);
+        List<Object> chunk = new ArrayList<>(Math.min(ids.size(), maxIdsPerStatement));
+        for (Object id : ids) {
+            if (chunk.size() == maxIdsPerStatement) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(maxIdsPerStatement);
+            }
+            chunk.add(id);
+        }
+        chunks.add(pad(chunk));
+        return chunks;
+    }
+
+    // Pad the IDs up to the next power of two (capped by the maximum), repeating the last ID
+    private List<Object> pad(List<Object> chunk) {
+        int bucketSize = Math.min(Integer.highestOneBit(chunk.size() - 1) << 1, maxIdsPerStatement);
+        Object lastId = chunk.get(chunk.size() - 1);
+        while (chunk.size() < bucketSize) {
+            chunk.add(lastId);
+        }
+        return chunk;
+    }
+
+    // Both the named and the generic (param1) parameter reference the same collection, of the IDs or the entities
+    private static ParamMap<Object> replaceIds(ParamMap<?> paramMap, Collection<?> ids, List<Object> chunk) {
+        ParamMap<Object> chunkParam = new ParamMap<>();
+        for (Map.Entry<String, ?> entry : paramMap.entrySet()) {
+            chunkParam.put(entry.getKey(), entry.getValue() == ids ? chunk : entry.getValue());
+        }
+        return chunkParam;
+    }
+
+    /**
+     * The IDs invalidated by a transaction, invalidated again after it completes. It is bound to the transaction
+     * by the cache, so a transaction registers a single synchronization per cache however many entities it writes.
+     */
+    private static final class PendingInvalidation implements TransactionSynchronization {
+
+        private final PrimaryKeyCache cache;
+
+        private final Set<Object> ids = new HashSet<>();
+
+        private boolean all;
+
+        private PendingInvalidation(PrimaryKeyCache cache) {
+            this.cache = cache;
+        }
+
+        // The IDs are null if the whole table is invalidated
+        private void add(List<Object> ids) {
+            if (ids == null) {
+                all = true;
+                this.ids.clear();
+            } else if (!all) {
+                this.ids.addAll(ids);
+            }
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(cache);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(cache, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+            if (all) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(ids);
+            }
+        }
+    }
+
+    /**
+     * The entities whose snapshots are refreshed by a transaction, dropped if it does not commit. The snapshots are
+     * refreshed right away, so the later updates of the transaction compare with the written values.
+     */
+    private static final class PendingSnapshots implements TransactionSynchronization {
+
+        private final EntitySnapshots snapshots;
+
+        private final List<Object> entities = new ArrayList<>();
+
+        private PendingSnapshots(EntitySnapshots snapshots) {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(snapshots);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(snapshots, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(snapshots);
+            if (status != STATUS_COMMITTED) {
+                entities.forEach(snapshots::remove);
+            }
+        }
+    }
+
+    private record ApproximateCount(Object count, long loadedAt) {
+    }
+
+    /**
+     * @param mapperType        The mapper of the batch statement.
+     * @param entityStatementId The ID of the statement executed for each entity.
+     * @param selective         Whether the SQL of the entity statement depends on the {@code null} fields.
+     */
+    private record BatchStatement(Class<?> mapperType, String entityStatementId, boolean selective) {
+    }
+}
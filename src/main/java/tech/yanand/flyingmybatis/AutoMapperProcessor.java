@@ -16,38 +16,484 @@
 
 package tech.yanand.flyingmybatis;
 
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Process the mapping between the primary key and the entity field
+ * Process the mapping between the primary key and the entity field,
+ * prebuild the SQL of the statements whose SQL never changes, and install the {@link AutoMapperInterceptor}.
  *
  * @author Richard Zhang
  */
-public class AutoMapperProcessor implements BeanPostProcessor {
+public class AutoMapperProcessor implements BeanPostProcessor, BeanFactoryAware, SmartInitializingSingleton {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AutoMapperProcessor.class);
 
     private static final String INSERT = ".insert";
 
     private static final String INSERT_ALL = ".insertAll";
 
+    private static final String INSERT_ALL_IN_BATCH = ".insertAllInBatch";
+
+    private static final String INSERT_OR_UPDATE = ".insertOrUpdate";
+
+    private static final String INSERT_ALL_OR_UPDATE = ".insertAllOrUpdate";
+
+    private static final String SELECT_BY_ID = ".selectById";
+
+    private static final String SELECT_ALL = ".selectAll";
+
+    private static final String SELECT_ALL_CURSOR = ".selectAllCursor";
+
+    private static final String SELECT_ALL_WITH_HANDLER = ".selectAllWithHandler";
+
+    private static final String SELECT_ALL_BY_COLUMN = ".selectAllByColumn";
+
+    private static final String SELECT_ALL_BY_CRITERIA = ".selectAllByCriteria";
+
+    private static final String SELECT_PAGE_AFTER = ".selectPageAfter";
+
+    private static final String SELECT_PAGE_BY_COLUMN_AFTER = ".selectPageByColumnAfter";
+
+    private static final String SELECT_ALL_BY_COLUMN_CURSOR = ".selectAllByColumnCursor";
+
+    private static final String SELECT_ALL_BY_COLUMN_WITH_HANDLER = ".selectAllByColumnWithHandler";
+
+    private static final String COUNT_ALL = ".countAll";
+
+    private static final String COUNT_ALL_APPROXIMATE = ".countAllApproximate";
+
+    private static final String COUNT_BY_CRITERIA = ".countByCriteria";
+
+    private static final String EXISTS_ALL_BY_ID = ".existsAllById";
+
+    private static final String DELETE_BY_ID = ".deleteById";
+
+    private static final String UPDATE = ".update";
+
+    private static final String UPDATE_ALL = ".updateAll";
+
+    private static final String UPDATE_SELECTIVE = ".updateSelective";
+
+    private static final String UPDATE_CHANGED = ".updateChanged";
+
+    private static final String UPDATE_ALL_SELECTIVE = ".updateAllSelective";
+
+    private static final String UPDATE_BY_COLUMN = ".updateByColumn";
+
+    private static final String SELECT_ALL_BY_ID = ".selectAllById";
+
+    private static final String DELETE_ALL_BY_ID = ".deleteAllById";
+
+    private static final String DELETE_ALL = ".deleteAll";
+
+    private static final String DELETE_BY_COLUMN = ".deleteByColumn";
+
+    private static final String SELECT_PROJECTION_BY_ID = ".selectProjectionById";
+
+    private static final String SELECT_ALL_PROJECTION_BY_ID = ".selectAllProjectionById";
+
+    private static final int DEFAULT_MAX_IDS_PER_STATEMENT = 1000;
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final long DEFAULT_APPROXIMATE_COUNT_TTL_SECONDS = 60;
+
+    private final Map<Configuration, AutoMapperInterceptor> interceptors = new ConcurrentHashMap<>();
+
+    private final Map<Configuration, Dialect> dialects = new ConcurrentHashMap<>();
+
+    private final Map<Configuration, MetricsInterceptor> metricsInterceptors = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Configuration> processedMappers = new ConcurrentHashMap<>();
+
+    private StatementMetricsListener metricsListener;
+
+    private Dialect dialect;
+
+    private SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(0);
+
+    private boolean eagerBootstrap;
+
+    private boolean schemaValidation;
+
+    private int maxIdsPerStatement = DEFAULT_MAX_IDS_PER_STATEMENT;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    private long approximateCountTtlSeconds = DEFAULT_APPROXIMATE_COUNT_TTL_SECONDS;
+
+    /**
+     * Set the maximum count of IDs bound to a single {@code selectAllById} or {@code deleteAllById} statement,
+     * larger ID collections are split into several statements. The default is {@code 1000}.
+     *
+     * @param maxIdsPerStatement The maximum count of IDs.
+     */
+    public void setMaxIdsPerStatement(int maxIdsPerStatement) {
+        if (maxIdsPerStatement < 1)
+            throw new IllegalArgumentException("The maximum count of IDs must be positive");
+
+        this.maxIdsPerStatement = maxIdsPerStatement;
+    }
+
+    /**
+     * Set the count of entities sent to DB in a JDBC batch by {@code updateAll} and {@code updateAllSelective}.
+     * The default is {@code 1000}.
+     *
+     * @param batchSize The count of entities in a batch.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be positive");
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set the JDBC fetch size of the streaming selects, such as {@code selectAllCursor} and
+     * {@code selectAllWithHandler}, so the rows are pulled from DB incrementally. The default is {@code 1000}.
+     * <p>Some drivers need a special value to stream, e.g. MySQL needs {@link Integer#MIN_VALUE}.
+     *
+     * @param fetchSize The fetch size.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Set the seconds that the count of {@code countAllApproximate} is cached, {@code 0} not to cache it.
+     * The default is {@code 60}.
+     *
+     * @param approximateCountTtlSeconds The time to live in seconds.
+     */
+    public void setApproximateCountTtlSeconds(long approximateCountTtlSeconds) {
+        if (approximateCountTtlSeconds < 0)
+            throw new IllegalArgumentException("The TTL of the approximate count must not be negative");
+
+        this.approximateCountTtlSeconds = approximateCountTtlSeconds;
+    }
+
+    /**
+     * Resolve the table metadata of all {@link AutoMapper} mappers in parallel before the mappers are created,
+     * instead of one by one as they are created. It shortens the startup when there are many entities.
+     * The default is {@code false}.
+     *
+     * @param eagerBootstrap Whether to resolve the table metadata eagerly.
+     */
+    public void setEagerBootstrap(boolean eagerBootstrap) {
+        this.eagerBootstrap = eagerBootstrap;
+    }
+
+    /**
+     * Validate the tables and columns of all {@link AutoMapper} mappers against the DB at the end of the startup,
+     * and fail the startup with the report of every missing table and column. The default is {@code false}.
+     *
+     * @param schemaValidation Whether to validate the schema.
+     */
+    public void setSchemaValidation(boolean schemaValidation) {
+        this.schemaValidation = schemaValidation;
+    }
+
+    /**
+     * Set the listener of the metrics of the {@link AutoMapper} methods, which are the timings of the SQL generation,
+     * the execution and the row mapping, the rows and the batch sizes. No metrics are measured by default.
+     *
+     * @param metricsListener The metrics listener, e.g. a {@link StatementMetricsRecorder}.
+     */
+    public void setMetricsListener(StatementMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * Set the node ID of the {@link PrimaryKey.KeyType#SNOWFLAKE SNOWFLAKE} keys, between {@code 0} and
+     * {@code 1023}. Each application instance inserting into the same tables must have its own node ID,
+     * otherwise their keys may collide. The default is {@code 0}.
+     *
+     * @param nodeId The node ID.
+     */
+    public void setNodeId(int nodeId) {
+        this.snowflakeIdGenerator = new SnowflakeIdGenerator(nodeId);
+    }
+
+    /**
+     * Set the dialect of all DBs, instead of detecting it from the product name of each DB.
+     * The dialects are detected by default, see {@link Dialect}.
+     *
+     * @param dialect The dialect.
+     */
+    public void setDialect(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
-        if (bean instanceof MapperFactoryBean<?> factoryBean) {
-            modifyKeyInfo(factoryBean, INSERT);
-            modifyKeyInfo(factoryBean, INSERT_ALL);
+        if (bean instanceof MapperFactoryBean<?> factoryBean && isAutoMapperBased(factoryBean.getMapperInterface())) {
+            Configuration configuration = factoryBean.getSqlSession().getConfiguration();
+            Class<?> mapperInterface = factoryBean.getMapperInterface();
+
+            processedMappers.put(mapperInterface, configuration);
+            // Registered before the SQL is prebuilt, so the parameters of the UUID fields get it too
+            MybatisHelper.registerTypeHandlers(configuration);
+            KeyGenerator keyGenerator = MybatisHelper.createKeyGenerator(MetaDataCache.getTableInfo(mapperInterface),
+                    getDialect(configuration), snowflakeIdGenerator);
+            MybatisHelper.setMappedStatementKeys(configuration, mapperInterface, INSERT, keyGenerator);
+            MybatisHelper.setMappedStatementKeys(configuration, mapperInterface, INSERT_ALL, keyGenerator);
+
+            prebuildSqlSources(configuration, mapperInterface);
+            prepareStreamingSelects(configuration, mapperInterface);
+            prepareResultMaps(configuration, mapperInterface);
+
+            AutoMapperInterceptor interceptor = interceptors.computeIfAbsent(configuration, this::addInterceptor);
+            interceptor.addIdsStatement(mapperInterface.getName() + SELECT_ALL_BY_ID);
+            interceptor.addIdsStatement(mapperInterface.getName() + DELETE_ALL_BY_ID);
+            interceptor.addIdsStatement(mapperInterface.getName() + EXISTS_ALL_BY_ID);
+            interceptor.addInsertAllStatement(mapperInterface.getName() + INSERT_ALL, mapperInterface,
+                    mapperInterface.getName() + INSERT);
+            addBatchStatement(interceptor, mapperInterface, INSERT_ALL_IN_BATCH, INSERT, false);
+            addBatchStatement(interceptor, mapperInterface, INSERT_ALL_OR_UPDATE, INSERT_OR_UPDATE, false);
+            addBatchStatement(interceptor, mapperInterface, UPDATE_ALL, UPDATE, false);
+            addBatchStatement(interceptor, mapperInterface, UPDATE_ALL_SELECTIVE, UPDATE_SELECTIVE, true);
+            interceptor.addApproximateCountStatement(mapperInterface.getName() + COUNT_ALL_APPROXIMATE,
+                    mapperInterface.getName() + COUNT_ALL);
+            interceptor.addProjectionStatement(mapperInterface.getName() + SELECT_PROJECTION_BY_ID, mapperInterface);
+            interceptor.addProjectionStatement(mapperInterface.getName() + SELECT_ALL_PROJECTION_BY_ID, mapperInterface);
+            addCachedStatements(interceptor, mapperInterface);
+            addTrackedStatements(interceptor, mapperInterface);
+            addVersionedStatements(interceptor, mapperInterface);
+            translateOptimisticLocks(factoryBean, mapperInterface);
+
+            if (metricsListener != null) {
+                // Added after the AutoMapperInterceptor, so it measures the whole execution of a method
+                MetricsInterceptor metricsInterceptor = metricsInterceptors.computeIfAbsent(configuration,
+                        this::addMetricsInterceptor);
+                addMeasuredStatements(metricsInterceptor, configuration, mapperInterface);
+            }
         }
         return bean;
     }
 
-    private void modifyKeyInfo(MapperFactoryBean<?> factoryBean, String methodName) {
-        Class<?> mapperInterface = factoryBean.getMapperInterface();
+    private void prebuildSqlSources(Configuration configuration, Class<?> mapperInterface) {
+        TableInfo tableInfo = MetaDataCache.getTableInfo(mapperInterface);
+
+        setSqlSource(configuration, mapperInterface, INSERT, new PrebuiltSqlSource(
+                paramSqlSource(configuration, AutoMapperProvider.insertSql(tableInfo)),
+                AutoMapperProvider.ENTITY, AutoMapperProvider.ENTITY_IS_NULL));
+        // The SQL of the dialect of this configuration, the providers only build the STANDARD one
+        Dialect dialect = getDialect(configuration);
+        // The provider rejects the upserts of the versioned entities
+        if (tableInfo.getVersionColumnInfo() == null) {
+            setSqlSource(configuration, mapperInterface, INSERT_OR_UPDATE, new PrebuiltSqlSource(
+                    paramSqlSource(configuration, AutoMapperProvider.upsertSql(tableInfo, dialect)),
+                    AutoMapperProvider.ENTITY, AutoMapperProvider.ENTITY_IS_NULL));
+        }
+        setSqlSource(configuration, mapperInterface, SELECT_BY_ID, new PrebuiltSqlSource(
+                paramSqlSource(configuration, AutoMapperProvider.selectByIdSql(tableInfo)),
+                AutoMapperProvider.ID, AutoMapperProvider.ID_IS_NULL));
+        SqlSource selectAllSqlSource = new PrebuiltSqlSource(
+                new RawSqlSource(configuration, AutoMapperProvider.selectAllSql(tableInfo), Object.class));
+        setSqlSource(configuration, mapperInterface, SELECT_ALL, selectAllSqlSource);
+        setSqlSource(configuration, mapperInterface, SELECT_ALL_CURSOR, selectAllSqlSource);
+        setSqlSource(configuration, mapperInterface, SELECT_ALL_WITH_HANDLER, selectAllSqlSource);
+        setSqlSource(configuration, mapperInterface, COUNT_ALL, new PrebuiltSqlSource(
+                new RawSqlSource(configuration, AutoMapperProvider.countAllSql(tableInfo), Object.class)));
+        setSqlSource(configuration, mapperInterface, COUNT_ALL_APPROXIMATE, new PrebuiltSqlSource(new RawSqlSource(
+                configuration, AutoMapperProvider.countAllApproximateSql(tableInfo, dialect), Object.class)));
+        setSqlSource(configuration, mapperInterface, DELETE_ALL, new PrebuiltSqlSource(new RawSqlSource(
+                configuration, dialect.deleteAll(tableInfo.getTableName()), Object.class)));
+        setSqlSource(configuration, mapperInterface, DELETE_BY_ID, new PrebuiltSqlSource(
+                paramSqlSource(configuration, AutoMapperProvider.deleteByIdSql(tableInfo)),
+                AutoMapperProvider.ID, AutoMapperProvider.ID_IS_NULL));
+        setSqlSource(configuration, mapperInterface, UPDATE, new PrebuiltSqlSource(
+                paramSqlSource(configuration, AutoMapperProvider.updateSql(tableInfo)),
+                AutoMapperProvider.ENTITY, AutoMapperProvider.ENTITY_IS_NULL));
+        setSqlSource(configuration, mapperInterface, SELECT_PAGE_AFTER,
+                new PageSqlSource(configuration, tableInfo, dialect, false));
+        setSqlSource(configuration, mapperInterface, SELECT_PAGE_BY_COLUMN_AFTER,
+                new PageSqlSource(configuration, tableInfo, dialect, true));
+        setSqlSource(configuration, mapperInterface, SELECT_ALL_BY_CRITERIA, new CriteriaSqlSource(configuration,
+                mapperInterface, dialect, AutoMapperProvider::selectAllByCriteriaSql));
+        setSqlSource(configuration, mapperInterface, COUNT_BY_CRITERIA, new CriteriaSqlSource(configuration,
+                mapperInterface, dialect, AutoMapperProvider::countByCriteriaSql));
+    }
+
+    private void prepareStreamingSelects(Configuration configuration, Class<?> mapperInterface) {
+        for (String methodName : List.of(SELECT_ALL_CURSOR, SELECT_ALL_WITH_HANDLER,
+                SELECT_ALL_BY_COLUMN_CURSOR, SELECT_ALL_BY_COLUMN_WITH_HANDLER)) {
+            MybatisHelper.setMappedStatementFetchSize(configuration, mapperInterface, methodName, fetchSize);
+        }
+    }
+
+    // The mapper methods taking a ResultHandler return void, they get the entity type from the ResultMap too
+    private void prepareResultMaps(Configuration configuration, Class<?> mapperInterface) {
+        ResultMap resultMap = MybatisHelper.addResultMap(configuration, mapperInterface);
+        for (String methodName : List.of(SELECT_BY_ID, SELECT_ALL_BY_ID, SELECT_ALL_BY_COLUMN, SELECT_ALL_BY_CRITERIA,
+                SELECT_PAGE_AFTER, SELECT_PAGE_BY_COLUMN_AFTER, SELECT_ALL, SELECT_ALL_CURSOR, SELECT_ALL_WITH_HANDLER,
+                SELECT_ALL_BY_COLUMN_CURSOR, SELECT_ALL_BY_COLUMN_WITH_HANDLER)) {
+            MybatisHelper.setMappedStatementResultMap(configuration, mapperInterface, methodName, resultMap);
+        }
+    }
+
+    private AutoMapperInterceptor addInterceptor(Configuration configuration) {
+        AutoMapperInterceptor interceptor = new AutoMapperInterceptor(maxIdsPerStatement, batchSize,
+                getDialect(configuration), approximateCountTtlSeconds);
+        configuration.addInterceptor(interceptor);
+        return interceptor;
+    }
+
+    private Dialect getDialect(Configuration configuration) {
+        return dialect != null ? dialect : dialects.computeIfAbsent(configuration, MybatisHelper::detectDialect);
+    }
+
+    private MetricsInterceptor addMetricsInterceptor(Configuration configuration) {
+        MetricsInterceptor metricsInterceptor = new MetricsInterceptor(metricsListener);
+        configuration.addInterceptor(metricsInterceptor);
+        return metricsInterceptor;
+    }
+
+    private void addMeasuredStatements(MetricsInterceptor metricsInterceptor, Configuration configuration,
+                                       Class<?> mapperInterface) {
+        for (Method method : AutoMapper.class.getMethods()) {
+            String methodName = "." + method.getName();
+            if (configuration.hasStatement(mapperInterface.getName() + methodName, false)) {
+                MappedStatement ms = configuration.getMappedStatement(mapperInterface.getName() + methodName);
+                MybatisHelper.setMappedStatementSqlSource(configuration, mapperInterface, methodName,
+                        metricsInterceptor.addStatement(ms, mapperInterface, method.getName()));
+            }
+        }
+    }
+
+    private void addCachedStatements(AutoMapperInterceptor interceptor, Class<?> mapperInterface) {
+        if (MetaDataCache.getTableInfo(mapperInterface).getCache() == null)
+            return;
+
+        for (String methodName : List.of(SELECT_BY_ID, SELECT_ALL_BY_ID, INSERT_OR_UPDATE, INSERT_ALL_OR_UPDATE, UPDATE,
+                UPDATE_SELECTIVE, UPDATE_CHANGED, UPDATE_ALL, UPDATE_ALL_SELECTIVE, UPDATE_BY_COLUMN, DELETE_BY_ID,
+                DELETE_ALL_BY_ID, DELETE_BY_COLUMN, DELETE_ALL)) {
+            interceptor.addCachedStatement(mapperInterface.getName() + methodName, mapperInterface);
+        }
+    }
+
+    private void addTrackedStatements(AutoMapperInterceptor interceptor, Class<?> mapperInterface) {
+        if (MetaDataCache.getTableInfo(mapperInterface).getSnapshots() == null)
+            return;
+
+        for (String methodName : List.of(SELECT_BY_ID, SELECT_ALL_BY_ID, UPDATE_CHANGED)) {
+            interceptor.addTrackedStatement(mapperInterface.getName() + methodName, mapperInterface);
+        }
+    }
+
+    private void addVersionedStatements(AutoMapperInterceptor interceptor, Class<?> mapperInterface) {
+        if (MetaDataCache.getTableInfo(mapperInterface).getVersionColumnInfo() == null)
+            return;
+
+        // The batch statements execute these statements for each entity
+        for (String methodName : List.of(INSERT, INSERT_ALL, UPDATE, UPDATE_SELECTIVE, UPDATE_CHANGED)) {
+            interceptor.addVersionedStatement(mapperInterface.getName() + methodName, mapperInterface);
+        }
+    }
+
+    // MyBatis wraps the exceptions of the interceptors, and the SqlSessionTemplate wraps them again
+    private void translateOptimisticLocks(MapperFactoryBean<?> factoryBean, Class<?> mapperInterface) {
+        SqlSessionTemplate template = factoryBean.getSqlSessionTemplate();
+        if (MetaDataCache.getTableInfo(mapperInterface).getVersionColumnInfo() == null || template == null)
+            return;
+
+        factoryBean.setSqlSessionTemplate(new SqlSessionTemplate(template.getSqlSessionFactory(),
+                template.getExecutorType(),
+                new OptimisticLockExceptionTranslator(template.getPersistenceExceptionTranslator())));
+    }
+
+    private void addBatchStatement(AutoMapperInterceptor interceptor, Class<?> mapperInterface, String methodName,
+                                   String entityMethodName, boolean selective) {
+        interceptor.addBatchStatement(mapperInterface.getName() + methodName, mapperInterface,
+                mapperInterface.getName() + entityMethodName, selective);
+    }
+
+    private void setSqlSource(Configuration configuration, Class<?> mapperInterface, String methodName,
+                              SqlSource sqlSource) {
+        MybatisHelper.setMappedStatementSqlSource(configuration, mapperInterface, methodName, sqlSource);
+    }
+
+    // The parameters of the mapper methods annotated by @Param are always wrapped in a ParamMap
+    private SqlSource paramSqlSource(Configuration configuration, String sql) {
+        return new RawSqlSource(configuration, sql, ParamMap.class);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        if (eagerBootstrap && beanFactory instanceof ConfigurableListableBeanFactory listableBeanFactory) {
+            resolveTableInfos(listableBeanFactory);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!schemaValidation)
+            return;
+
+        Map<Configuration, List<Class<?>>> mappersByConfiguration = new HashMap<>();
+        processedMappers.forEach((mapperInterface, configuration) ->
+                mappersByConfiguration.computeIfAbsent(configuration, key -> new ArrayList<>()).add(mapperInterface));
+
+        List<String> problems = new ArrayList<>();
+        mappersByConfiguration.forEach((configuration, mapperInterfaces) -> problems.addAll(SchemaValidator
+                .validate(configuration.getEnvironment().getDataSource(), mapperInterfaces)));
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Schema validation failed:\n  " + String.join("\n  ", problems));
+        }
+
+        LOG.info("Validated the schema of [{}] mappers", processedMappers.size());
+    }
+
+    // The mapper interfaces are known by the bean definitions, so the metadata is resolved before the mappers
+    private void resolveTableInfos(ConfigurableListableBeanFactory beanFactory) {
+        List<Class<?>> mapperInterfaces = new ArrayList<>();
+        for (String beanName : beanFactory.getBeanNamesForType(MapperFactoryBean.class, true, false)) {
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(
+                    beanName.startsWith(BeanFactory.FACTORY_BEAN_PREFIX) ? beanName.substring(1) : beanName);
+            Object objectType = beanDefinition.getAttribute(FactoryBean.OBJECT_TYPE_ATTRIBUTE);
+            Class<?> mapperInterface = objectType instanceof Class<?> type ? type : objectType instanceof String name
+                    ? ClassUtils.resolveClassName(name, beanFactory.getBeanClassLoader()) : null;
+            if (mapperInterface != null && isAutoMapperBased(mapperInterface)) {
+                mapperInterfaces.add(mapperInterface);
+            }
+        }
 
-        if (isAutoMapperBased(mapperInterface))
-            MybatisHelper.setMappedStatementKeys(factoryBean.getSqlSession().getConfiguration(),
-                    mapperInterface, methodName);
+        long start = System.nanoTime();
+        mapperInterfaces.parallelStream().forEach(MetaDataCache::getTableInfo);
+        LOG.info("Resolved the table metadata of [{}] mappers in [{}] ms", mapperInterfaces.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     private boolean isAutoMapperBased(Class<?> mapperInterface) {
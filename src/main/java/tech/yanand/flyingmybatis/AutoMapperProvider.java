@@ -20,22 +20,25 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.builder.annotation.ProviderContext;
 import org.apache.ibatis.builder.annotation.ProviderMethodResolver;
 import org.apache.ibatis.jdbc.SQL;
-import tech.yanand.flyingmybatis.PrimaryKey.KeyType;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
-import static java.util.UUID.randomUUID;
 import static tech.yanand.flyingmybatis.MetaDataCache.ENTITY_PLACEHOLDER;
 
 /**
- * The core CRUD provider implementation.
+ * The core CRUD provider implementation. The dialect-dependent SQL is built of the {@link BuiltInDialect#STANDARD
+ * STANDARD} dialect here, the {@link AutoMapperProcessor} replaces it by the SQL of the dialect of each configuration.
  *
  * @author Richard Zhang
  */
@@ -43,66 +46,111 @@ public class AutoMapperProvider implements ProviderMethodResolver {
 
     private static final String WHERE_COLUMN_EQUALS = "%s = #{%s}";
 
+    private static final String WHERE_COLUMN_GREATER_THAN = "%s > #{%s}";
+
     private static final String WHERE_ID_IN = "%s in (%s)";
 
     private static final String SET_COLUMN = "%s = #{entity.%s}";
 
-    private static final String TRUNCATE_TABLE = "truncate table %s";
+    private static final String SET_VERSION = "%s = %s + 1";
+
+    private static final String SET_UPDATE = "%s = #{updates.%s}";
+
+    private static final String WHEN_ID_THEN = " WHEN %s = #{%s} THEN #{%s}";
+
+    static final String ENTITY = "entity";
+
+    static final String ENTITIES = "entities";
+
+    static final String BATCH_SIZE = "batchSize";
+
+    static final String ID = "id";
+
+    static final String IDS = "ids";
+
+    static final String PROJECTION = "projection";
+
+    static final String CRITERIA = "criteria";
+
+    static final String LAST_ID = "lastId";
+
+    static final String LIMIT = "limit";
+
+    static final String ENTITY_IS_NULL = "Entity is null";
 
-    private static final String ENTITY = "entity";
+    static final String CRITERIA_IS_NULL = "Criteria is null";
 
-    private static final String ENTITY_IS_NULL = "Entity is null";
+    static final String ENTITIES_IS_NULL = "Entities is null";
+
+    private static final String BATCH_ONLY = "Executed in batches only, the AutoMapperProcessor is required";
+
+    private static final String PROJECTION_ONLY = "Mapped into projections only, the AutoMapperProcessor is required";
+
+    static final String ID_IS_NULL = "ID is null";
+
+    private static final String VERSIONED_BATCH_ONLY =
+            "The versioned entities are updated in batches only, the AutoMapperProcessor is required";
+
+    private static final String VERSIONED_UPSERT =
+            "The versioned entities can not be upserted, insert or update them instead";
+
+    static final String IDS_IS_EMPTY = "IDs is null or empty";
+
+    private static final String UPDATES_IS_EMPTY = "Updates is null or empty";
 
     public static <E> String insert(@Param(ENTITY) E entity, ProviderContext context) {
         entity = getParam(entity, ENTITY);
         requireNonNull(entity, ENTITY_IS_NULL);
 
-        TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        if (tableInfo.getKeyType() == KeyType.UUID)
-            MybatisHelper.setFieldValue(entity, tableInfo.getPrimaryKeyField(), randomUUID().toString());
-
-        return new SQL().INSERT_INTO(tableInfo.getTableName())
-                .INTO_COLUMNS(tableInfo.getBaseColumns())
-                .INTO_VALUES(tableInfo.getIntoValues().replace(ENTITY_PLACEHOLDER, ENTITY))
-                .toString();
+        return insertSql(MetaDataCache.getTableInfo(context.getMapperType()));
     }
 
-    public static <E> String insertAll(@Param("entities") Collection<E> entities, ProviderContext context) {
+    public static <E> String insertAll(@Param(ENTITIES) Collection<E> entities, ProviderContext context) {
         checkArgument(entities, "Entities is null or empty");
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        if (tableInfo.getKeyType() == KeyType.UUID)
-            entities.forEach(entity -> MybatisHelper.setFieldValue(entity, tableInfo.getPrimaryKeyField(), randomUUID().toString()));
-
         return new SQL().INSERT_INTO(tableInfo.getTableName())
                 .INTO_COLUMNS(tableInfo.getBaseColumns())
                 .applyForEach(entities, (sql, entity, index) -> sql
-                        .INTO_VALUES(tableInfo.getIntoValues().replace(ENTITY_PLACEHOLDER, "entities[" + index + "]"))
+                        .INTO_VALUES(tableInfo.getIntoValues().replace(ENTITY_PLACEHOLDER, ENTITIES + "[" + index + "]"))
                         .ADD_ROW())
                 .toString();
     }
 
+    public static <E> String insertAllInBatch(@Param(ENTITIES) Collection<E> entities,
+                                              @Param(BATCH_SIZE) int batchSize, ProviderContext context) {
+        // Executed in batches by the AutoMapperInterceptor, falls back to a multi-row insert without it
+        return insertAll(entities, context);
+    }
+
     public static <K> String selectById(@Param("id") K id, ProviderContext context) {
-        id = getParam(id, "id");
-        requireNonNull(id, "ID is null");
+        id = getParam(id, ID);
+        requireNonNull(id, ID_IS_NULL);
+
+        return selectByIdSql(MetaDataCache.getTableInfo(context.getMapperType()));
+    }
+
+    public static <K> String selectAllById(@Param(IDS) Collection<K> ids, ProviderContext context) {
+        checkArgument(ids, IDS_IS_EMPTY);
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        return new SQL()
-                .SELECT("*")
-                .FROM(tableInfo.getTableName())
-                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getPrimaryKey(), "id"))
-                .toString();
+        return selectAllByIdSql(tableInfo, tableInfo.getSelectColumns(), ids.size());
     }
 
-    public static <K> String selectAllById(@Param("ids") Collection<K> ids, ProviderContext context) {
-        checkArgument(ids, "IDs is null or empty");
+    public static <K> String existsAllById(@Param(IDS) Collection<K> ids, ProviderContext context) {
+        checkArgument(ids, IDS_IS_EMPTY);
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        return new SQL()
-                .SELECT("*")
-                .FROM(tableInfo.getTableName())
-                .WHERE(String.format(WHERE_ID_IN, tableInfo.getPrimaryKey(), getIdIn(ids)))
-                .toString();
+        return selectAllByIdSql(tableInfo, tableInfo.getPrimaryKey(), ids.size());
+    }
+
+    public static <K, P> String selectProjectionById(@Param(ID) K id, @Param(PROJECTION) Class<P> projection) {
+        throw new IllegalStateException(PROJECTION_ONLY);
+    }
+
+    public static <K, P> String selectAllProjectionById(@Param(IDS) Collection<K> ids,
+                                                        @Param(PROJECTION) Class<P> projection) {
+        throw new IllegalStateException(PROJECTION_ONLY);
     }
 
     public static String selectAllByColumn(@Param("column") String column, @Param("value") Object value,
@@ -111,88 +159,406 @@ public class AutoMapperProvider implements ProviderMethodResolver {
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
         return new SQL()
-                .SELECT("*")
+                .SELECT(tableInfo.getSelectColumns())
                 .FROM(tableInfo.getTableName())
-                .WHERE(String.format(WHERE_COLUMN_EQUALS, column, "value"))
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getColumnInfo(column).getColumnName(), "value"))
                 .toString();
     }
 
+    public static String selectAllByColumnCursor(@Param("column") String column, @Param("value") Object value,
+                                                 ProviderContext context) {
+        return selectAllByColumn(column, value, context);
+    }
+
+    public static String selectAllByColumnWithHandler(@Param("column") String column, @Param("value") Object value,
+                                                      ProviderContext context) {
+        return selectAllByColumn(column, value, context);
+    }
+
+    public static <K> String selectPageAfter(@Param(LAST_ID) K lastId, @Param(LIMIT) int limit,
+                                             ProviderContext context) {
+        checkLimit(limit);
+
+        return selectPageAfterSql(MetaDataCache.getTableInfo(context.getMapperType()), nonNull(lastId),
+                BuiltInDialect.STANDARD);
+    }
+
+    public static <K> String selectPageByColumnAfter(@Param("column") String column, @Param("value") Object value,
+                                                     @Param(LAST_ID) K lastId, @Param(LIMIT) int limit,
+                                                     ProviderContext context) {
+        requireNonNull(value);
+        checkLimit(limit);
+
+        return selectPageByColumnAfterSql(MetaDataCache.getTableInfo(context.getMapperType()), column,
+                nonNull(lastId), BuiltInDialect.STANDARD);
+    }
+
+    public static String selectAllByCriteria(@Param(CRITERIA) Criteria criteria, ProviderContext context) {
+        requireNonNull(criteria, CRITERIA_IS_NULL);
+
+        return selectAllByCriteriaSql(MetaDataCache.getTableInfo(context.getMapperType()), criteria,
+                BuiltInDialect.STANDARD);
+    }
+
     public static String selectAll(ProviderContext context) {
-        TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        return new SQL()
-                .SELECT("*")
-                .FROM(tableInfo.getTableName())
-                .toString();
+        return selectAllSql(MetaDataCache.getTableInfo(context.getMapperType()));
+    }
+
+    public static String selectAllCursor(ProviderContext context) {
+        return selectAll(context);
+    }
+
+    public static String selectAllWithHandler(ProviderContext context) {
+        return selectAll(context);
     }
 
     public static String countAll(ProviderContext context) {
+        return countAllSql(MetaDataCache.getTableInfo(context.getMapperType()));
+    }
+
+    public static String countAllApproximate(ProviderContext context) {
+        return countAllApproximateSql(MetaDataCache.getTableInfo(context.getMapperType()),
+                BuiltInDialect.STANDARD);
+    }
+
+    public static String countByColumn(@Param("column") String column, @Param("value") Object value,
+                                       ProviderContext context) {
+        requireNonNull(value);
+
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
         return new SQL()
                 .SELECT("count(*)")
                 .FROM(tableInfo.getTableName())
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getColumnInfo(column).getColumnName(), "value"))
                 .toString();
     }
 
+    public static String countByCriteria(@Param(CRITERIA) Criteria criteria, ProviderContext context) {
+        requireNonNull(criteria, CRITERIA_IS_NULL);
+
+        return countByCriteriaSql(MetaDataCache.getTableInfo(context.getMapperType()), criteria,
+                BuiltInDialect.STANDARD);
+    }
+
     public static <K> String deleteById(@Param("id") K id, ProviderContext context) {
-        id = getParam(id, "id");
-        requireNonNull(id, "ID is null");
+        id = getParam(id, ID);
+        requireNonNull(id, ID_IS_NULL);
+
+        return deleteByIdSql(MetaDataCache.getTableInfo(context.getMapperType()));
+    }
+
+    public static <K> String deleteAllById(@Param(IDS) Collection<K> ids, ProviderContext context) {
+        checkArgument(ids, IDS_IS_EMPTY);
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
         return new SQL()
                 .DELETE_FROM(tableInfo.getTableName())
-                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getPrimaryKey(), "id"))
+                .WHERE(String.format(WHERE_ID_IN, tableInfo.getPrimaryKey(), getIdIn(ids.size())))
                 .toString();
     }
 
-    public static <K> String deleteAllById(@Param("ids") Collection<K> ids, ProviderContext context) {
-        checkArgument(ids, "IDs is null or empty");
+    public static String deleteByColumn(@Param("column") String column, @Param("value") Object value,
+                                        ProviderContext context) {
+        requireNonNull(value);
 
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
         return new SQL()
                 .DELETE_FROM(tableInfo.getTableName())
-                .WHERE(String.format(WHERE_ID_IN, tableInfo.getPrimaryKey(), getIdIn(ids)))
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getColumnInfo(column).getColumnName(), "value"))
                 .toString();
     }
 
     public static String deleteAll(ProviderContext context) {
-        TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
-        return String.format(TRUNCATE_TABLE, tableInfo.getTableName());
+        return BuiltInDialect.STANDARD.deleteAll(MetaDataCache.getTableInfo(context.getMapperType()).getTableName());
     }
 
     public static <E> String update(@Param(ENTITY) E entity, ProviderContext context) {
         entity = getParam(entity, ENTITY);
         requireNonNull(entity, ENTITY_IS_NULL);
 
+        return updateSql(MetaDataCache.getTableInfo(context.getMapperType()));
+    }
+
+    public static <E> String updateSelective(@Param(ENTITY) E entity, ProviderContext context) {
+        E finalEntity = getParam(entity, ENTITY);
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
 
-        return buildUpdateSql(tableInfo, columnInfo -> true);
+        requireNonNull(finalEntity, ENTITY_IS_NULL);
+        Objects.requireNonNull(tableInfo.getPrimaryKeyColumnInfo().getValue(finalEntity),
+                "Updated entity ID is null");
+
+        return buildUpdateSql(tableInfo, columnInfo -> nonNull(columnInfo.getValue(finalEntity)));
     }
 
-    public static <E> String updateSelective(@Param(ENTITY) E entity, ProviderContext context) {
+    public static <E> String updateChanged(@Param(ENTITY) E entity, ProviderContext context) {
         E finalEntity = getParam(entity, ENTITY);
         TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
 
         requireNonNull(finalEntity, ENTITY_IS_NULL);
-        Objects.requireNonNull(MybatisHelper.getFieldValue(finalEntity, tableInfo.getPrimaryKeyField()),
+        Objects.requireNonNull(tableInfo.getPrimaryKeyColumnInfo().getValue(finalEntity),
                 "Updated entity ID is null");
 
-        return buildUpdateSql(tableInfo, columnInfo -> nonNull(MybatisHelper.getFieldValue(finalEntity, columnInfo.getFieldName())));
+        // The AutoMapperInterceptor skips the entities without changes, all columns are updated without it
+        Set<ColumnInfo> changedColumns = isNull(tableInfo.getSnapshots()) ? null
+                : tableInfo.getSnapshots().getChangedColumns(finalEntity);
+        return isNull(changedColumns) || changedColumns.isEmpty() ? updateSql(tableInfo)
+                : buildUpdateSql(tableInfo, changedColumns::contains);
+    }
+
+    public static <E> String insertOrUpdate(@Param(ENTITY) E entity, ProviderContext context) {
+        E finalEntity = getParam(entity, ENTITY);
+        requireNonNull(finalEntity, ENTITY_IS_NULL);
+
+        TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
+        // The update branch would overwrite a newer row and move its version backwards
+        if (nonNull(tableInfo.getVersionColumnInfo()))
+            throw new IllegalStateException(VERSIONED_UPSERT);
+        requireNonNull(tableInfo.getPrimaryKeyColumnInfo().getValue(finalEntity), ID_IS_NULL);
+        return upsertSql(tableInfo, BuiltInDialect.STANDARD);
+    }
+
+    public static <E> String insertAllOrUpdate(@Param(ENTITIES) Collection<E> entities) {
+        throw new IllegalStateException(BATCH_ONLY);
+    }
+
+    public static <E> String updateAll(@Param(ENTITIES) Collection<E> entities, ProviderContext context) {
+        requireNonNull(entities, ENTITIES_IS_NULL);
+
+        // Executed in batches by the AutoMapperInterceptor, falls back to a single multi-row update without it
+        return updateAllSql(MetaDataCache.getTableInfo(context.getMapperType()), new ArrayList<>(entities), false);
+    }
+
+    public static <E> String updateAllSelective(@Param(ENTITIES) Collection<E> entities, ProviderContext context) {
+        requireNonNull(entities, ENTITIES_IS_NULL);
+
+        return updateAllSql(MetaDataCache.getTableInfo(context.getMapperType()), new ArrayList<>(entities), true);
+    }
+
+    public static String updateByColumn(@Param("column") String column, @Param("value") Object value,
+                                        @Param("updates") Map<String, ?> updates, ProviderContext context) {
+        requireNonNull(value);
+        if (updates == null || updates.isEmpty())
+            throw new IllegalArgumentException(UPDATES_IS_EMPTY);
+
+        TableInfo tableInfo = MetaDataCache.getTableInfo(context.getMapperType());
+        ColumnInfo versionColumnInfo = tableInfo.getVersionColumnInfo();
+        SQL sql = new SQL().UPDATE(tableInfo.getTableName());
+        for (String name : updates.keySet()) {
+            ColumnInfo columnInfo = tableInfo.getColumnInfo(name);
+            if (columnInfo == versionColumnInfo)
+                throw new IllegalArgumentException("Version column [" + name + "] is incremented only");
+
+            sql.SET(String.format(SET_UPDATE, columnInfo.getColumnName(), name));
+        }
+        if (nonNull(versionColumnInfo))
+            sql.SET(String.format(SET_VERSION, versionColumnInfo.getColumnName(), versionColumnInfo.getColumnName()));
+
+        return sql
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getColumnInfo(column).getColumnName(), "value"))
+                .toString();
+    }
+
+    static String insertSql(TableInfo tableInfo) {
+        return new SQL().INSERT_INTO(tableInfo.getTableName())
+                .INTO_COLUMNS(tableInfo.getBaseColumns())
+                .INTO_VALUES(tableInfo.getIntoValues().replace(ENTITY_PLACEHOLDER, ENTITY))
+                .toString();
+    }
+
+    static String selectByIdSql(TableInfo tableInfo) {
+        return selectByIdSql(tableInfo, tableInfo.getSelectColumns());
+    }
+
+    static String selectByIdSql(TableInfo tableInfo, String selectColumns) {
+        return new SQL()
+                .SELECT(selectColumns)
+                .FROM(tableInfo.getTableName())
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getPrimaryKey(), ID))
+                .toString();
+    }
+
+    static String selectAllByIdSql(TableInfo tableInfo, String selectColumns, int idCount) {
+        return new SQL()
+                .SELECT(selectColumns)
+                .FROM(tableInfo.getTableName())
+                .WHERE(String.format(WHERE_ID_IN, tableInfo.getPrimaryKey(), getIdIn(idCount)))
+                .toString();
+    }
+
+    static String selectAllSql(TableInfo tableInfo) {
+        return new SQL()
+                .SELECT(tableInfo.getSelectColumns())
+                .FROM(tableInfo.getTableName())
+                .toString();
+    }
+
+    static String countAllSql(TableInfo tableInfo) {
+        return new SQL()
+                .SELECT("count(*)")
+                .FROM(tableInfo.getTableName())
+                .toString();
+    }
+
+    static String deleteByIdSql(TableInfo tableInfo) {
+        return new SQL()
+                .DELETE_FROM(tableInfo.getTableName())
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getPrimaryKey(), ID))
+                .toString();
+    }
+
+    static String updateSql(TableInfo tableInfo) {
+        return buildUpdateSql(tableInfo, columnInfo -> true);
+    }
+
+    static String upsertSql(TableInfo tableInfo, Dialect dialect) {
+        List<String> columns = tableInfo.getColumnInfos().stream().map(ColumnInfo::getColumnName).toList();
+        List<String> values = tableInfo.getColumnInfos().stream()
+                .map(columnInfo -> "#{" + ENTITY + "." + columnInfo.getFieldName() + "}")
+                .toList();
+        return dialect.upsert(tableInfo.getTableName(), tableInfo.getPrimaryKey(), columns, values);
+    }
+
+    static String selectAllByCriteriaSql(TableInfo tableInfo, Criteria criteria, Dialect dialect) {
+        SQL sql = new SQL()
+                .SELECT(tableInfo.getSelectColumns())
+                .FROM(tableInfo.getTableName());
+        where(sql, tableInfo, criteria);
+
+        for (Criteria.Order order : criteria.getOrders()) {
+            String column = tableInfo.getColumnInfo(order.name()).getColumnName();
+            sql.ORDER_BY(order.descending() ? column + " DESC" : column);
+        }
+        if (nonNull(criteria.getLimit())) {
+            if (criteria.getOrders().isEmpty())
+                sql.ORDER_BY(tableInfo.getPrimaryKey());
+            dialect.limit(sql, "#{" + CRITERIA + ".limit}");
+        }
+        return sql.toString();
+    }
+
+    static String countAllApproximateSql(TableInfo tableInfo, Dialect dialect) {
+        String sql = dialect.approximateCount(tableInfo.getTableName());
+        return sql == null ? countAllSql(tableInfo) : sql;
+    }
+
+    static String countByCriteriaSql(TableInfo tableInfo, Criteria criteria, Dialect dialect) {
+        SQL sql = new SQL()
+                .SELECT("count(*)")
+                .FROM(tableInfo.getTableName());
+        where(sql, tableInfo, criteria);
+        return sql.toString();
+    }
+
+    private static void where(SQL sql, TableInfo tableInfo, Criteria criteria) {
+        for (Criteria.Condition condition : criteria.getConditions()) {
+            String column = tableInfo.getColumnInfo(condition.name()).getColumnName();
+            int first = condition.firstParameter();
+            switch (condition.operator()) {
+                case EQ -> sql.WHERE(column + " = " + parameter(first));
+                case NE -> sql.WHERE(column + " <> " + parameter(first));
+                case GT -> sql.WHERE(column + " > " + parameter(first));
+                case GE -> sql.WHERE(column + " >= " + parameter(first));
+                case LT -> sql.WHERE(column + " < " + parameter(first));
+                case LE -> sql.WHERE(column + " <= " + parameter(first));
+                case BETWEEN -> sql.WHERE(column + " BETWEEN " + parameter(first) + " AND " + parameter(first + 1));
+                case IN -> sql.WHERE(condition.parameterCount() == 0 ? "1 = 0" : column + " IN ("
+                        + IntStream.range(first, first + condition.parameterCount())
+                        .mapToObj(AutoMapperProvider::parameter)
+                        .collect(Collectors.joining(", ")) + ")");
+                case IS_NULL -> sql.WHERE(column + " IS NULL");
+                case IS_NOT_NULL -> sql.WHERE(column + " IS NOT NULL");
+            }
+        }
+    }
+
+    private static String parameter(int index) {
+        return "#{" + CRITERIA + ".parameters[" + index + "]}";
+    }
+
+    static String selectPageAfterSql(TableInfo tableInfo, boolean afterLastId, Dialect dialect) {
+        SQL sql = new SQL()
+                .SELECT(tableInfo.getSelectColumns())
+                .FROM(tableInfo.getTableName());
+        return pageAfter(sql, tableInfo, afterLastId, dialect);
+    }
+
+    static String selectPageByColumnAfterSql(TableInfo tableInfo, String column, boolean afterLastId,
+                                             Dialect dialect) {
+        SQL sql = new SQL()
+                .SELECT(tableInfo.getSelectColumns())
+                .FROM(tableInfo.getTableName())
+                .WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getColumnInfo(column).getColumnName(), "value"));
+        return pageAfter(sql, tableInfo, afterLastId, dialect);
+    }
+
+    // Seek the page by the primary key, so the page costs the same no matter how deep it is
+    private static String pageAfter(SQL sql, TableInfo tableInfo, boolean afterLastId, Dialect dialect) {
+        if (afterLastId)
+            sql.WHERE(String.format(WHERE_COLUMN_GREATER_THAN, tableInfo.getPrimaryKey(), LAST_ID));
+
+        sql.ORDER_BY(tableInfo.getPrimaryKey());
+        dialect.limit(sql, "#{" + LIMIT + "}");
+        return sql.toString();
+    }
+
+    // Each column is set by a CASE of the IDs, the columns of the selective update keep their value for null fields
+    static String updateAllSql(TableInfo tableInfo, List<?> entities, boolean selective) {
+        ColumnInfo primaryKeyColumnInfo = tableInfo.getPrimaryKeyColumnInfo();
+        ColumnInfo versionColumnInfo = tableInfo.getVersionColumnInfo();
+        // A single statement only reports the total count, so a stale entity would be skipped silently
+        if (nonNull(versionColumnInfo))
+            throw new IllegalStateException(VERSIONED_BATCH_ONLY);
+
+        SQL sql = new SQL().UPDATE(tableInfo.getTableName());
+        if (entities.isEmpty()) {
+            return sql.SET(tableInfo.getPrimaryKey() + " = " + tableInfo.getPrimaryKey()).WHERE("1 = 0").toString();
+        }
+
+        for (ColumnInfo columnInfo : tableInfo.getColumnInfos()) {
+            if (columnInfo == primaryKeyColumnInfo)
+                continue;
+
+            StringBuilder cases = new StringBuilder();
+            for (int index = 0; index < entities.size(); index++) {
+                if (!selective || nonNull(columnInfo.getValue(entities.get(index)))) {
+                    cases.append(String.format(WHEN_ID_THEN, tableInfo.getPrimaryKey(),
+                            ENTITIES + "[" + index + "]." + tableInfo.getPrimaryKeyField(),
+                            ENTITIES + "[" + index + "]." + columnInfo.getFieldName()));
+                }
+            }
+            if (!cases.isEmpty()) {
+                sql.SET(columnInfo.getColumnName() + " = CASE" + cases + " ELSE " + columnInfo.getColumnName() + " END");
+            }
+        }
+
+        return sql.WHERE(String.format(WHERE_ID_IN, tableInfo.getPrimaryKey(), IntStream.range(0, entities.size())
+                        .mapToObj(index -> "#{" + ENTITIES + "[" + index + "]." + tableInfo.getPrimaryKeyField() + "}")
+                        .collect(Collectors.joining(", "))))
+                .toString();
     }
 
     private static String buildUpdateSql(TableInfo tableInfo, Predicate<ColumnInfo> selective) {
+        ColumnInfo versionColumnInfo = tableInfo.getVersionColumnInfo();
         SQL sql = new SQL().UPDATE(tableInfo.getTableName());
         for (ColumnInfo columnInfo : tableInfo.getColumnInfos()) {
-            if (selective.test(columnInfo)) {
+            if (columnInfo != versionColumnInfo && selective.test(columnInfo)) {
                 sql.SET(String.format(SET_COLUMN, columnInfo.getColumnName(), columnInfo.getFieldName()));
             }
         }
         sql.WHERE(String.format(WHERE_COLUMN_EQUALS, tableInfo.getPrimaryKey(), "entity." + tableInfo.getPrimaryKeyField()));
+
+        // Only the row of the loaded version is updated, the AutoMapperInterceptor checks the updated count
+        if (nonNull(versionColumnInfo)) {
+            sql.SET(String.format(SET_VERSION, versionColumnInfo.getColumnName(), versionColumnInfo.getColumnName()));
+            sql.WHERE(String.format(WHERE_COLUMN_EQUALS, versionColumnInfo.getColumnName(),
+                    "entity." + versionColumnInfo.getFieldName()));
+        }
         return sql.toString();
     }
 
-    private static <K> String getIdIn(Collection<K> ids) {
-        return IntStream.range(0, ids.size())
-                .mapToObj(index -> "#{ids[" + index + "]}")
+    private static String getIdIn(int idCount) {
+        return IntStream.range(0, idCount)
+                .mapToObj(index -> "#{" + IDS + "[" + index + "]}")
                 .collect(Collectors.joining(", "));
     }
 
@@ -202,8 +568,13 @@ public class AutoMapperProvider implements ProviderMethodResolver {
         return ((Map<String, T>) paramMap).get(key);
     }
 
-    private static <T> void checkArgument(Collection<T> arg, String message) {
+    static <T> void checkArgument(Collection<T> arg, String message) {
         if (arg == null || arg.isEmpty())
             throw new IllegalArgumentException(message);
     }
+
+    static void checkLimit(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+    }
 }
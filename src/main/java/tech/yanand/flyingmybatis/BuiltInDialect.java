@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.jdbc.SQL;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The built-in dialects, see {@link Dialect}.
+ *
+ * @author Richard Zhang
+ */
+enum BuiltInDialect implements Dialect {
+
+    HSQLDB("hsql") {
+        @Override
+        public int getMaxBindParameters() {
+            return 10000;
+        }
+
+        @Override
+        public String deleteAll(String tableName) {
+            return TRUNCATE_TABLE + tableName;
+        }
+
+        @Override
+        public String nextSequenceValue(String sequence) {
+            return "CALL NEXT VALUE FOR " + sequence;
+        }
+    },
+
+    MYSQL("mysql", "mariadb") {
+        @Override
+        public int getMaxBindParameters() {
+            return 65535;
+        }
+
+        @Override
+        public void limit(SQL sql, String limit) {
+            sql.LIMIT(limit);
+        }
+
+        @Override
+        public String deleteAll(String tableName) {
+            return TRUNCATE_TABLE + tableName;
+        }
+
+        @Override
+        public String approximateCount(String tableName) {
+            int dot = tableName.lastIndexOf('.');
+            String schema = dot < 0 ? "DATABASE()" : literal(tableName.substring(0, dot));
+            return "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = " + schema
+                    + " AND TABLE_NAME = " + literal(tableName.substring(dot + 1));
+        }
+
+        // Only MariaDB has sequences
+        @Override
+        public String nextSequenceValue(String sequence) {
+            return "SELECT NEXTVAL(" + sequence + ")";
+        }
+
+        @Override
+        public String upsert(String tableName, String keyColumn, List<String> columns, List<String> values) {
+            String updates = columns.stream()
+                    .filter(column -> !column.equals(keyColumn))
+                    .map(column -> column + " = VALUES(" + column + ")")
+                    .collect(Collectors.joining(", "));
+            return insert(tableName, columns, values) + " ON DUPLICATE KEY UPDATE "
+                    + (updates.isEmpty() ? keyColumn + " = " + keyColumn : updates);
+        }
+    },
+
+    POSTGRESQL("postgresql") {
+        @Override
+        public int getMaxBindParameters() {
+            return 32767;
+        }
+
+        @Override
+        public void limit(SQL sql, String limit) {
+            sql.LIMIT(limit);
+        }
+
+        @Override
+        public String deleteAll(String tableName) {
+            return TRUNCATE_TABLE + tableName;
+        }
+
+        @Override
+        public String nextSequenceValue(String sequence) {
+            return "SELECT nextval('" + sequence + "')";
+        }
+
+        // The estimate is -1 if the table has never been analyzed
+        @Override
+        public String approximateCount(String tableName) {
+            return "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(" + literal(tableName) + ")";
+        }
+
+        @Override
+        public String upsert(String tableName, String keyColumn, List<String> columns, List<String> values) {
+            String updates = columns.stream()
+                    .filter(column -> !column.equals(keyColumn))
+                    .map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", "));
+            return insert(tableName, columns, values) + " ON CONFLICT (" + keyColumn + ") "
+                    + (updates.isEmpty() ? "DO NOTHING" : "DO UPDATE SET " + updates);
+        }
+    },
+
+    SQL_SERVER("microsoft sql server") {
+        @Override
+        public int getMaxBindParameters() {
+            return 2100;
+        }
+
+        @Override
+        public void limit(SQL sql, String limit) {
+            // SQL Server only supports FETCH after OFFSET
+            sql.OFFSET_ROWS("0").FETCH_FIRST_ROWS_ONLY(limit);
+        }
+
+        @Override
+        public String nextSequenceValue(String sequence) {
+            return "SELECT NEXT VALUE FOR " + sequence;
+        }
+
+        // The rows of the heap or the clustered index
+        @Override
+        public String approximateCount(String tableName) {
+            return "SELECT SUM(row_count) FROM sys.dm_db_partition_stats WHERE object_id = OBJECT_ID("
+                    + literal(tableName) + ") AND index_id < 2";
+        }
+
+        @Override
+        public String upsert(String tableName, String keyColumn, List<String> columns, List<String> values) {
+            // SQL Server requires MERGE to be terminated
+            return super.upsert(tableName, keyColumn, columns, values) + ";";
+        }
+    },
+
+    /**
+     * The SQL:2008 standard, used when the DB is not known.
+     */
+    STANDARD;
+
+    private static final String TRUNCATE_TABLE = "truncate table ";
+
+    private final String[] productNames;
+
+    BuiltInDialect(String... productNames) {
+        this.productNames = productNames;
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        String name = productName.toLowerCase(Locale.ENGLISH);
+        for (String dialectProductName : productNames) {
+            if (name.contains(dialectProductName))
+                return true;
+        }
+        return false;
+    }
+
+    static Dialect of(String productName) {
+        for (BuiltInDialect dialect : values()) {
+            if (dialect.supports(productName))
+                return dialect;
+        }
+        return STANDARD;
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static String insert(String tableName, List<String> columns, List<String> values) {
+        return "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", values) + ")";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Generates the keys of the entities on the client before they are inserted, such as the
+ * {@link PrimaryKey.KeyType#UUID UUID} keys. The keys are converted to strings for the {@link String} key fields.
+ *
+ * @author Richard Zhang
+ */
+class ClientKeyGenerator implements KeyGenerator {
+
+    private final ColumnInfo keyColumnInfo;
+
+    private final KeySupplier keySupplier;
+
+    ClientKeyGenerator(ColumnInfo keyColumnInfo, KeySupplier keySupplier) {
+        this.keyColumnInfo = keyColumnInfo;
+        this.keySupplier = keySupplier;
+    }
+
+    @Override
+    public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+        Map<?, ?> paramMap = (Map<?, ?>) parameter;
+        try {
+            if (paramMap.containsKey(AutoMapperProvider.ENTITY)) {
+                setKey(executor, paramMap.get(AutoMapperProvider.ENTITY));
+            } else {
+                for (Object entity : (Collection<?>) paramMap.get(AutoMapperProvider.ENTITIES)) {
+                    setKey(executor, entity);
+                }
+            }
+        } catch (SQLException e) {
+            throw new ExecutorException("Error generating the keys of statement: " + ms.getId(), e);
+        }
+    }
+
+    @Override
+    public void processAfter(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+        // Keys are generated before the statement is executed
+    }
+
+    private void setKey(Executor executor, Object entity) throws SQLException {
+        Object key = keySupplier.get(executor);
+        keyColumnInfo.setValue(entity, keyColumnInfo.getJavaType() == String.class ? key.toString() : key);
+    }
+
+    /**
+     * Supplies the keys, some of them are fetched from DB by the executor of the insert.
+     */
+    @FunctionalInterface
+    interface KeySupplier {
+
+        Object get(Executor executor) throws SQLException;
+    }
+}
@@ -16,6 +16,8 @@
 
 package tech.yanand.flyingmybatis;
 
+import java.lang.invoke.MethodHandle;
+
 /**
  * IInformation after converting an object field to database column information.
  */
@@ -23,8 +25,17 @@ class ColumnInfo {
 
     private String fieldName;
 
+    /** Compiled getter of the field, typed as {@code (Object)Object} */
+    private MethodHandle getter;
+
+    /** Compiled setter of the field, typed as {@code (Object, Object)void} */
+    private MethodHandle setter;
+
     private boolean string;
 
+    /** Java type of the field */
+    private Class<?> javaType;
+
     /** Database column name */
     private String columnName;
 
@@ -44,6 +55,14 @@ class ColumnInfo {
         this.string = string;
     }
 
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+
+    public void setJavaType(Class<?> javaType) {
+        this.javaType = javaType;
+    }
+
     public String getColumnName() {
         return columnName;
     }
@@ -51,4 +70,34 @@ class ColumnInfo {
     public void setColumnName(String columnName) {
         this.columnName = columnName;
     }
+
+    public void setGetter(MethodHandle getter) {
+        this.getter = getter;
+    }
+
+    public void setSetter(MethodHandle setter) {
+        this.setter = setter;
+    }
+
+    /**
+     * Get the field value of the entity through the compiled getter.
+     */
+    Object getValue(Object entity) {
+        try {
+            return getter.invokeExact(entity);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not get field [" + fieldName + "].", e);
+        }
+    }
+
+    /**
+     * Set the field value of the entity through the compiled setter.
+     */
+    void setValue(Object entity, Object value) {
+        try {
+            setter.invokeExact(entity, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not set field [" + fieldName + "].", e);
+        }
+    }
 }
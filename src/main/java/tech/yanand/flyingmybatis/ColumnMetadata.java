@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import tech.yanand.flyingmybatis.PrimaryKey.KeyType;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The metadata of a column generated by the {@link TableMetadataProcessor}.
+ *
+ * @param fieldName  The field name.
+ * @param columnName The column name.
+ * @param javaType   The type of the field.
+ * @param keyType        The key type if the column is the primary key, otherwise {@code null}.
+ * @param sequence       The sequence of the {@link KeyType#SEQUENCE SEQUENCE} key, otherwise empty.
+ * @param allocationSize The allocation size of the {@link KeyType#SEQUENCE SEQUENCE} key.
+ * @param getter         The typed getter of the field, or {@code null} if the field is not accessible,
+ *                       then the field is accessed by reflection.
+ * @param setter         The typed setter of the field, or {@code null} if the field is not accessible.
+ * @param <E>            The entity type.
+ * @author Richard Zhang
+ */
+public record ColumnMetadata<E>(String fieldName, String columnName, Class<?> javaType, KeyType keyType,
+                                String sequence, int allocationSize, Function<E, Object> getter,
+                                BiConsumer<E, Object> setter) {
+
+    /**
+     * The metadata of a column which is not a sequence key.
+     *
+     * @param fieldName  The field name.
+     * @param columnName The column name.
+     * @param javaType   The type of the field.
+     * @param keyType    The key type if the column is the primary key, otherwise {@code null}.
+     * @param getter     The typed getter of the field, or {@code null} if the field is not accessible.
+     * @param setter     The typed setter of the field, or {@code null} if the field is not accessible.
+     */
+    public ColumnMetadata(String fieldName, String columnName, Class<?> javaType, KeyType keyType,
+                          Function<E, Object> getter, BiConsumer<E, Object> setter) {
+        this(fieldName, columnName, javaType, keyType, "", 0, getter, setter);
+    }
+}
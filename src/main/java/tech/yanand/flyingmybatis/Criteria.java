@@ -0,0 +1,267 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The criteria of {@link AutoMapper#selectAllByCriteria(Criteria)}, the predicates are joined by {@code AND}.
+ * The columns are referenced by the field names or the column names of the entity, the unknown ones are rejected.
+ * <pre>{@code
+ * bookMapper.selectAllByCriteria(new Criteria()
+ *         .eq("name", "test_book_1")
+ *         .ge("publishDate", LocalDate.of(2000, 1, 1))
+ *         .orderByDesc("publishDate")
+ *         .limit(20));
+ * }</pre>
+ * <p>The SQL of each shape of criteria, which is the columns, the operators and the orders, is built only once.
+ * The values of {@link #in(String, Collection)} are padded to a power of two by repeating the last one,
+ * so the collections of different sizes share a few shapes.
+ *
+ * @author Richard Zhang
+ */
+public final class Criteria {
+
+    private final List<Condition> conditions = new ArrayList<>();
+
+    private final List<Order> orders = new ArrayList<>();
+
+    private final List<Object> parameters = new ArrayList<>();
+
+    private final StringBuilder shape = new StringBuilder();
+
+    private Integer limit;
+
+    /**
+     * The column equals the value, or is {@code null} if the value is {@code null}.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria eq(String name, Object value) {
+        return value == null ? isNull(name) : add(name, Operator.EQ, value);
+    }
+
+    /**
+     * The column does not equal the value, or is not {@code null} if the value is {@code null}.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria ne(String name, Object value) {
+        return value == null ? isNotNull(name) : add(name, Operator.NE, value);
+    }
+
+    /**
+     * The column is greater than the value.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria gt(String name, Object value) {
+        return add(name, Operator.GT, requireNonNull(value, "Value is null"));
+    }
+
+    /**
+     * The column is greater than or equals the value.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria ge(String name, Object value) {
+        return add(name, Operator.GE, requireNonNull(value, "Value is null"));
+    }
+
+    /**
+     * The column is less than the value.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria lt(String name, Object value) {
+        return add(name, Operator.LT, requireNonNull(value, "Value is null"));
+    }
+
+    /**
+     * The column is less than or equals the value.
+     *
+     * @param name  The field name or column name.
+     * @param value The value.
+     * @return This criteria.
+     */
+    public Criteria le(String name, Object value) {
+        return add(name, Operator.LE, requireNonNull(value, "Value is null"));
+    }
+
+    /**
+     * The column is between the values, inclusive.
+     *
+     * @param name The field name or column name.
+     * @param from The lower value.
+     * @param to   The upper value.
+     * @return This criteria.
+     */
+    public Criteria between(String name, Object from, Object to) {
+        return add(name, Operator.BETWEEN, requireNonNull(from, "Value is null"), requireNonNull(to, "Value is null"));
+    }
+
+    /**
+     * The column is one of the values, no row matches if the values are empty.
+     *
+     * @param name   The field name or column name.
+     * @param values The values.
+     * @return This criteria.
+     */
+    public Criteria in(String name, Collection<?> values) {
+        requireNonNull(values, "Values is null");
+
+        List<Object> paddedValues = new ArrayList<>(values);
+        if (!paddedValues.isEmpty()) {
+            int paddedSize = Integer.highestOneBit(paddedValues.size() - 1) << 1;
+            Object last = paddedValues.get(paddedValues.size() - 1);
+            while (paddedValues.size() < paddedSize) {
+                paddedValues.add(last);
+            }
+        }
+        return add(name, Operator.IN, paddedValues.toArray());
+    }
+
+    /**
+     * The column is {@code null}.
+     *
+     * @param name The field name or column name.
+     * @return This criteria.
+     */
+    public Criteria isNull(String name) {
+        return add(name, Operator.IS_NULL);
+    }
+
+    /**
+     * The column is not {@code null}.
+     *
+     * @param name The field name or column name.
+     * @return This criteria.
+     */
+    public Criteria isNotNull(String name) {
+        return add(name, Operator.IS_NOT_NULL);
+    }
+
+    /**
+     * Order by the column ascending, after the previous orders.
+     *
+     * @param name The field name or column name.
+     * @return This criteria.
+     */
+    public Criteria orderBy(String name) {
+        return addOrder(name, false);
+    }
+
+    /**
+     * Order by the column descending, after the previous orders.
+     *
+     * @param name The field name or column name.
+     * @return This criteria.
+     */
+    public Criteria orderByDesc(String name) {
+        return addOrder(name, true);
+    }
+
+    /**
+     * Limit the count of the selected rows, they are ordered by the primary key if no order is given.
+     *
+     * @param limit The maximum count of rows.
+     * @return This criteria.
+     */
+    public Criteria limit(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        if (this.limit == null)
+            shape.append("|limit");
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * The values bound to the SQL, in the order of the predicates.
+     *
+     * @return The parameter values.
+     */
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * @return The limit, or {@code null} if the rows are not limited.
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    List<Condition> getConditions() {
+        return conditions;
+    }
+
+    List<Order> getOrders() {
+        return orders;
+    }
+
+    /** The key of the SQL, the criteria of the same shape share the SQL */
+    String getShape() {
+        return shape.toString();
+    }
+
+    private Criteria add(String name, Operator operator, Object... values) {
+        requireNonNull(name, "Name is null");
+
+        conditions.add(new Condition(name, operator, parameters.size(), values.length));
+        Collections.addAll(parameters, values);
+        shape.append('|').append(name).append(' ').append(operator).append(' ').append(values.length);
+        return this;
+    }
+
+    private Criteria addOrder(String name, boolean descending) {
+        requireNonNull(name, "Name is null");
+
+        orders.add(new Order(name, descending));
+        shape.append("|order ").append(name).append(descending ? " desc" : " asc");
+        return this;
+    }
+
+    enum Operator {
+        EQ, NE, GT, GE, LT, LE, BETWEEN, IN, IS_NULL, IS_NOT_NULL
+    }
+
+    /**
+     * A predicate, its values are the parameters from {@code firstParameter}.
+     */
+    record Condition(String name, Operator operator, int firstParameter, int parameterCount) {
+    }
+
+    record Order(String name, boolean descending) {
+    }
+}
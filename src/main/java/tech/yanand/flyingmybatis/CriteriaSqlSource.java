@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The SQL source of the {@link Criteria} statements. The SQL of each shape of criteria is built and parsed only once,
+ * the criteria of the same shape only differ in the parameter values.
+ *
+ * @author Richard Zhang
+ */
+class CriteriaSqlSource implements SqlSource {
+
+    /** The shapes beyond it are built for each call, so the dynamic shapes can not exhaust the memory */
+    private static final int MAX_CACHED_SHAPES = 1024;
+
+    private final Map<String, SqlSource> sqlSources = new ConcurrentHashMap<>();
+
+    private final Configuration configuration;
+
+    private final Class<?> mapperType;
+
+    private final Dialect dialect;
+
+    private final CriteriaSqlBuilder sqlBuilder;
+
+    CriteriaSqlSource(Configuration configuration, Class<?> mapperType, Dialect dialect,
+                      CriteriaSqlBuilder sqlBuilder) {
+        this.configuration = configuration;
+        this.mapperType = mapperType;
+        this.dialect = dialect;
+        this.sqlBuilder = sqlBuilder;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        Criteria criteria = (Criteria) ((Map<?, ?>) parameterObject).get(AutoMapperProvider.CRITERIA);
+        requireNonNull(criteria, AutoMapperProvider.CRITERIA_IS_NULL);
+
+        String shape = criteria.getShape();
+        SqlSource sqlSource = sqlSources.get(shape);
+        if (sqlSource == null) {
+            sqlSource = new RawSqlSource(configuration, sqlBuilder.build(MetaDataCache.getTableInfo(mapperType),
+                    criteria, dialect), ParamMap.class);
+            if (sqlSources.size() < MAX_CACHED_SHAPES)
+                sqlSources.putIfAbsent(shape, sqlSource);
+        }
+        return sqlSource.getBoundSql(parameterObject);
+    }
+
+    /**
+     * Builds the SQL of a shape of criteria.
+     */
+    @FunctionalInterface
+    interface CriteriaSqlBuilder {
+
+        String build(TableInfo tableInfo, Criteria criteria, Dialect dialect);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.jdbc.SQL;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The SQL dialect of a DB, which chooses the SQL and the bulk strategy of the {@link AutoMapper} methods.
+ * <p>The dialect of a DB is detected from the product name of the JDBC {@link java.sql.DatabaseMetaData}.
+ * The dialects registered by {@link java.util.ServiceLoader} in
+ * {@code META-INF/services/tech.yanand.flyingmybatis.Dialect} are tried first, then the built-in dialects of
+ * HSQLDB, MySQL, PostgreSQL and SQL Server, and a generic SQL:2008 dialect for the other DBs.
+ * A dialect can also be forced by {@link AutoMapperProcessor#setDialect(Dialect)}.
+ *
+ * @author Richard Zhang
+ */
+public interface Dialect {
+
+    /**
+     * Whether the dialect supports the DB.
+     *
+     * @param productName The product name of the DB reported by the JDBC driver.
+     * @return {@code true} if the dialect supports the DB.
+     */
+    boolean supports(String productName);
+
+    /**
+     * The maximum count of rows inserted by a multi-row {@code insertAll} statement,
+     * the larger collections are inserted by several statements.
+     *
+     * @return The maximum rows per statement, default {@code 1000}.
+     */
+    default int getMaxRowsPerInsert() {
+        return 1000;
+    }
+
+    /**
+     * The maximum count of bind parameters in a statement. The rows per {@code insertAll} statement and
+     * the IDs per {@code selectAllById} and {@code deleteAllById} statement are capped by it.
+     *
+     * @return The maximum bind parameters, default {@code 2000}.
+     */
+    default int getMaxBindParameters() {
+        return 2000;
+    }
+
+    /**
+     * Whether {@code insertAll} executes the single row insert in JDBC batches,
+     * instead of the multi-row {@code VALUES} statements.
+     *
+     * @return {@code true} to use JDBC batches, default {@code false}.
+     */
+    default boolean isJdbcBatchPreferred() {
+        return false;
+    }
+
+    /**
+     * Limit the count of the selected rows, the SQL must be ordered.
+     *
+     * @param sql   The SQL to be limited.
+     * @param limit The count of rows, a literal or a parameter placeholder.
+     */
+    default void limit(SQL sql, String limit) {
+        sql.FETCH_FIRST_ROWS_ONLY(limit);
+    }
+
+    /**
+     * The SQL of {@code deleteAll}.
+     *
+     * @param tableName The table name.
+     * @return The SQL deleting all rows, default a {@code delete} without condition.
+     */
+    default String deleteAll(String tableName) {
+        return "delete from " + tableName;
+    }
+
+    /**
+     * The SQL selecting the next value of a sequence, used by the {@link PrimaryKey.KeyType#SEQUENCE SEQUENCE} keys.
+     *
+     * @param sequence The sequence name.
+     * @return The SQL selecting a single value, default the standard {@code NEXT VALUE FOR} in a {@code VALUES}.
+     */
+    default String nextSequenceValue(String sequence) {
+        return "VALUES (NEXT VALUE FOR " + sequence + ")";
+    }
+
+    /**
+     * The SQL selecting the estimated row count of a table from the statistics of the DB,
+     * used by {@code countAllApproximate}. It is counted exactly if the SQL selects no row,
+     * {@code null} or a negative count.
+     *
+     * @param tableName The table name.
+     * @return The SQL selecting a single count, default {@code null} to always count exactly.
+     */
+    default String approximateCount(String tableName) {
+        return null;
+    }
+
+    /**
+     * The SQL inserting a row, or updating it if its key exists, by a single statement.
+     *
+     * @param tableName The table name.
+     * @param keyColumn The primary key column, one of the {@code columns}.
+     * @param columns   All columns of the table.
+     * @param values    The parameter placeholders of the {@code columns}, in the same order.
+     * @return The SQL, default the standard {@code MERGE}.
+     */
+    default String upsert(String tableName, String keyColumn, List<String> columns, List<String> values) {
+        String keyValue = values.get(columns.indexOf(keyColumn));
+        String updates = IntStream.range(0, columns.size())
+                .filter(index -> !columns.get(index).equals(keyColumn))
+                .mapToObj(index -> columns.get(index) + " = " + values.get(index))
+                .collect(Collectors.joining(", "));
+
+        // The key is compared with the parameter, so no value needs a cast to be typed in the source row
+        return "MERGE INTO " + tableName + " USING (VALUES (1)) AS s (k) ON ("
+                + tableName + "." + keyColumn + " = " + keyValue + ")"
+                + (updates.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET " + updates)
+                + " WHEN NOT MATCHED THEN INSERT (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", values) + ")";
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cache the entities of the table by the primary key, {@code selectById} and {@code selectAllById} read through
+ * the cache. The entries are invalidated by {@code insertOrUpdate}, {@code update}, {@code updateSelective},
+ * {@code updateChanged}, {@code updateByColumn}, {@code deleteById}, {@code deleteAllById}, {@code deleteByColumn}
+ * and {@code deleteAll} (and their batch variants), again after the transaction completes.
+ * <p>It is suited for the tables which are read much more often than written, such as reference data.
+ * The {@link AutoMapperProcessor} is required.
+ *
+ * @author Richard Zhang
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EntityCache {
+
+    /**
+     * The maximum count of the cached entities, the least recently used one is evicted beyond it.
+     *
+     * @return Maximum size.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * The seconds that an entity lives in the cache after it is loaded.
+     *
+     * @return Time to live in seconds.
+     */
+    long ttlSeconds() default 300;
+}
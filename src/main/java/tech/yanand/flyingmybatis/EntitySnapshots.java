@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The snapshots of the column values of the {@link DirtyTracking tracked} entities.
+ * <p>The entities are weakly referenced and compared by identity, so the snapshot of an entity is dropped once
+ * the entity is no longer used, and the entities overriding {@code equals} are still tracked one by one.
+ *
+ * @author Richard Zhang
+ */
+class EntitySnapshots {
+
+    private final List<ColumnInfo> columnInfos;
+
+    private final Map<EntityReference, Object[]> snapshots = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<Object> collectedEntities = new ReferenceQueue<>();
+
+    EntitySnapshots(List<ColumnInfo> columnInfos) {
+        this.columnInfos = columnInfos;
+    }
+
+    void take(Object entity) {
+        expunge();
+        snapshots.put(new EntityReference(entity, collectedEntities), values(entity));
+    }
+
+    // The local cache of the session returns the same entity again, which may have been changed since it is loaded
+    void takeIfAbsent(Object entity) {
+        if (!snapshots.containsKey(new EntityReference(entity, null)))
+            take(entity);
+    }
+
+    void remove(Object entity) {
+        snapshots.remove(new EntityReference(entity, null));
+    }
+
+    /**
+     * The columns whose values differ from the snapshot.
+     *
+     * @param entity The entity.
+     * @return The changed columns, or {@code null} if the entity has no snapshot.
+     */
+    Set<ColumnInfo> getChangedColumns(Object entity) {
+        Object[] values = snapshots.get(new EntityReference(entity, null));
+        if (values == null) {
+            return null;
+        }
+
+        Set<ColumnInfo> changedColumns = new HashSet<>();
+        for (int i = 0; i < values.length; i++) {
+            ColumnInfo columnInfo = columnInfos.get(i);
+            if (!Objects.deepEquals(values[i], columnInfo.getValue(entity)))
+                changedColumns.add(columnInfo);
+        }
+        return changedColumns;
+    }
+
+    private Object[] values(Object entity) {
+        Object[] values = new Object[columnInfos.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = copy(columnInfos.get(i).getValue(entity));
+        }
+        return values;
+    }
+
+    private void expunge() {
+        Reference<?> reference;
+        while ((reference = collectedEntities.poll()) != null) {
+            snapshots.remove(reference);
+        }
+    }
+
+    // The binary columns are mutable arrays, which may be changed in place
+    private static Object copy(Object value) {
+        return value instanceof byte[] bytes ? bytes.clone() : value;
+    }
+
+    private static final class EntityReference extends WeakReference<Object> {
+
+        private final int hash;
+
+        private EntityReference(Object entity, ReferenceQueue<Object> queue) {
+            super(entity, queue);
+            this.hash = System.identityHashCode(entity);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+
+            // The collected entities are only equal to themselves, so they are removed by the reference
+            Object entity = get();
+            return obj instanceof EntityReference other && entity != null && entity == other.get();
+        }
+    }
+}
@@ -18,14 +18,22 @@ package tech.yanand.flyingmybatis;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -40,8 +48,28 @@ final class MetaDataCache {
 
     private static final ConcurrentMap<Class<?>, TableInfo> DATA_CACHE = new ConcurrentHashMap<>();
 
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Projection>> PROJECTION_CACHE =
+            new ConcurrentHashMap<>();
+
     static final String ENTITY_PLACEHOLDER = "@EP@";
 
+    /** The generated accessors are bound to these, so they are invoked exactly like the compiled ones */
+    private static final MethodHandle FUNCTION_APPLY;
+
+    private static final MethodHandle BI_CONSUMER_ACCEPT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class));
+            BI_CONSUMER_ACCEPT = lookup.findVirtual(BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private MetaDataCache() {
         // Instantiation is not allowed
     }
@@ -50,21 +78,106 @@ final class MetaDataCache {
         return DATA_CACHE.computeIfAbsent(mapperType, MetaDataCache::getTableInfoFromType);
     }
 
+    static Projection getProjection(Class<?> mapperType, Class<?> projectionType) {
+        return PROJECTION_CACHE.computeIfAbsent(mapperType, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(projectionType, key -> Projection.of(getTableInfo(mapperType), projectionType));
+    }
+
     private static TableInfo getTableInfoFromType(Class<?> mapperType) {
         Class<?> beanClass = getBeanType(mapperType);
 
         TableInfo tableInfo = new TableInfo();
         tableInfo.setDomainName(beanClass.getTypeName());
+        tableInfo.setDomainType(beanClass);
 
         LOG.info("Resolved Bean from mapper namespace: [{}]", beanClass.getTypeName());
 
-        Table table = beanClass.getDeclaredAnnotation(Table.class);
-        tableInfo.setTableName(isNull(table) ? CaseFormatUtils.toTableName(beanClass.getSimpleName()) : table.value());
+        TableMetadata<?> tableMetadata = loadTableMetadata(beanClass);
+        if (nonNull(tableMetadata)) {
+            LOG.info("Loaded generated table metadata: [{}]", tableMetadata.getClass().getName());
+
+            resolveFromMetadata(tableInfo, tableMetadata);
+        } else {
+            resolveByReflection(tableInfo, beanClass);
+        }
+
+        if (isNull(tableInfo.getPrimaryKey())) {
+            throw new IllegalStateException("Table [" + tableInfo.getTableName() + "] must has a primary key.");
+        }
 
-        List<ColumnInfo> columnInfos = new ArrayList<>();
         List<String> baseColumns = new ArrayList<>();
         List<String> intoValues = new ArrayList<>();
+        for (ColumnInfo columnInfo : tableInfo.getColumnInfos()) {
+            if (columnInfo != tableInfo.getPrimaryKeyColumnInfo() || tableInfo.getKeyType() != PrimaryKey.KeyType.AUTO) {
+                baseColumns.add(columnInfo.getColumnName());
+                intoValues.add(String.format("#{%s.%s}", ENTITY_PLACEHOLDER, columnInfo.getFieldName()));
+            }
+        }
+
+        tableInfo.setSelectColumns(tableInfo.getColumnInfos().stream().map(ColumnInfo::getColumnName)
+                .collect(Collectors.joining(", ")));
+        tableInfo.setBaseColumns(String.join(", ", baseColumns));
+        tableInfo.setIntoValues(String.join(", ", intoValues));
+
+        EntityCache entityCache = beanClass.getDeclaredAnnotation(EntityCache.class);
+        if (nonNull(entityCache)) {
+            tableInfo.setCache(new PrimaryKeyCache(tableInfo, entityCache));
+        }
+        if (beanClass.isAnnotationPresent(DirtyTracking.class)) {
+            tableInfo.setSnapshots(new EntitySnapshots(tableInfo.getColumnInfos()));
+        }
+
+        return tableInfo;
+    }
+
+    private static TableMetadata<?> loadTableMetadata(Class<?> beanClass) {
+        String className = beanClass.getName() + TableMetadata.CLASS_SUFFIX;
+        try {
+            Class<?> metadataClass = Class.forName(className, true, beanClass.getClassLoader());
+            return (TableMetadata<?>) metadataClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load table metadata [" + className + "].", e);
+        }
+    }
+
+    private static void resolveFromMetadata(TableInfo tableInfo, TableMetadata<?> tableMetadata) {
+        tableInfo.setTableName(tableMetadata.getTableName());
+
+        List<ColumnInfo> columnInfos = new ArrayList<>();
+        for (ColumnMetadata<?> columnMetadata : tableMetadata.getColumns()) {
+            ColumnInfo columnInfo = new ColumnInfo();
+            columnInfo.setFieldName(columnMetadata.fieldName());
+            columnInfo.setColumnName(columnMetadata.columnName());
+            columnInfo.setJavaType(columnMetadata.javaType());
+            columnInfo.setString(columnMetadata.javaType().isAssignableFrom(String.class));
 
+            if (nonNull(columnMetadata.getter()) && nonNull(columnMetadata.setter())) {
+                columnInfo.setGetter(FUNCTION_APPLY.bindTo(columnMetadata.getter()));
+                columnInfo.setSetter(BI_CONSUMER_ACCEPT.bindTo(columnMetadata.setter()));
+            } else {
+                compileAccessors(columnInfo, ReflectionUtils.findField(tableMetadata.getDomainType(),
+                        columnMetadata.fieldName()));
+            }
+            columnInfos.add(columnInfo);
+
+            if (nonNull(columnMetadata.keyType())) {
+                setPrimaryKey(tableInfo, columnInfo, columnMetadata.keyType(), columnMetadata.sequence(),
+                        columnMetadata.allocationSize());
+            }
+            if (columnMetadata.fieldName().equals(tableMetadata.getVersionField())) {
+                setVersion(tableInfo, columnInfo);
+            }
+        }
+        tableInfo.setColumnInfos(columnInfos);
+    }
+
+    private static void resolveByReflection(TableInfo tableInfo, Class<?> beanClass) {
+        Table table = beanClass.getDeclaredAnnotation(Table.class);
+        tableInfo.setTableName(isNull(table) ? CaseFormatUtils.toTableName(beanClass.getSimpleName()) : table.value());
+
+        List<ColumnInfo> columnInfos = new ArrayList<>();
         Field[] fields = beanClass.getDeclaredFields();
         for (Field field : fields) {
             Column column = field.getDeclaredAnnotation(Column.class);
@@ -74,9 +187,8 @@ final class MetaDataCache {
                 String columnName = column.value();
                 columnInfo.setColumnName(columnName.isEmpty() ? CaseFormatUtils.toColumnName(field.getName()) : columnName);
                 columnInfo.setString(field.getType().isAssignableFrom(String.class));
-
-                baseColumns.add(columnInfo.getColumnName());
-                intoValues.add(String.format("#{%s.%s}", ENTITY_PLACEHOLDER, columnInfo.getFieldName()));
+                columnInfo.setJavaType(field.getType());
+                compileAccessors(columnInfo, field);
 
                 columnInfos.add(columnInfo);
             }
@@ -86,26 +198,74 @@ final class MetaDataCache {
                 if (isNull(column)) {
                     throw new IllegalStateException("Primary key [" + field.getName() + "] must be a column.");
                 }
-                tableInfo.setPrimaryKey(columnInfo.getColumnName());
-                tableInfo.setPrimaryKeyField(columnInfo.getFieldName());
-                tableInfo.setKeyType(primaryKey.keyType());
+                setPrimaryKey(tableInfo, columnInfo, primaryKey.keyType(), primaryKey.sequence(),
+                        primaryKey.allocationSize());
             }
-        }
 
-        if (isNull(tableInfo.getPrimaryKey())) {
-            throw new IllegalStateException("Table [" + tableInfo.getTableName() + "] must has a primary key.");
+            if (field.isAnnotationPresent(Version.class)) {
+                if (isNull(column)) {
+                    throw new IllegalStateException("Version [" + field.getName() + "] must be a column.");
+                }
+                setVersion(tableInfo, columnInfo);
+            }
         }
+        tableInfo.setColumnInfos(columnInfos);
+    }
 
-        if (tableInfo.getKeyType() == PrimaryKey.KeyType.AUTO) {
-            baseColumns.remove(tableInfo.getPrimaryKey());
-            intoValues.remove(String.format("#{%s.%s}", ENTITY_PLACEHOLDER, tableInfo.getPrimaryKeyField()));
+    private static void setPrimaryKey(TableInfo tableInfo, ColumnInfo columnInfo, PrimaryKey.KeyType keyType,
+                                      String sequence, int allocationSize) {
+        if (keyType == PrimaryKey.KeyType.SEQUENCE) {
+            if (sequence.isEmpty())
+                throw new IllegalStateException("Sequence key [" + columnInfo.getFieldName() + "] must have a sequence.");
+            if (allocationSize < 1)
+                throw new IllegalStateException("Allocation size of sequence [" + sequence + "] must be positive.");
+        }
+        // Checked here, otherwise the generated key could not be set until the first insert
+        Class<?> type = columnInfo.getJavaType();
+        switch (keyType) {
+            case UUID, UUID_V7 -> {
+                if (type != UUID.class && type != String.class)
+                    throw new IllegalStateException("Key [" + columnInfo.getFieldName() + "] of " + keyType
+                            + " must be a UUID or a String.");
+            }
+            case SNOWFLAKE, SEQUENCE -> {
+                if (type != Long.class && type != long.class && type != String.class)
+                    throw new IllegalStateException("Key [" + columnInfo.getFieldName() + "] of " + keyType
+                            + " must be a Long or a String.");
+            }
+            default -> {
+                // The DB or the caller sets the keys
+            }
         }
 
-        tableInfo.setBaseColumns(String.join(", ", baseColumns));
-        tableInfo.setIntoValues(String.join(", ", intoValues));
-        tableInfo.setColumnInfos(columnInfos);
+        tableInfo.setPrimaryKey(columnInfo.getColumnName());
+        tableInfo.setPrimaryKeyField(columnInfo.getFieldName());
+        tableInfo.setPrimaryKeyColumnInfo(columnInfo);
+        tableInfo.setKeyType(keyType);
+        tableInfo.setSequence(sequence);
+        tableInfo.setAllocationSize(allocationSize);
+    }
 
-        return tableInfo;
+    private static void setVersion(TableInfo tableInfo, ColumnInfo columnInfo) {
+        Class<?> type = columnInfo.getJavaType();
+        if (type != Integer.class && type != int.class && type != Long.class && type != long.class)
+            throw new IllegalStateException("Version [" + columnInfo.getFieldName() + "] must be an Integer or a Long.");
+
+        tableInfo.setVersionColumnInfo(columnInfo);
+    }
+
+    // Compiled only once, so the field accesses at runtime are not looked up by reflection again
+    private static void compileAccessors(ColumnInfo columnInfo, Field field) {
+        ReflectionUtils.makeAccessible(field);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            columnInfo.setGetter(lookup.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class)));
+            columnInfo.setSetter(lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not access field [" + field.getName() + "].", e);
+        }
     }
 
     private static Class<?> getBeanType(Class<?> mapperType) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measure the executions of the {@link AutoMapper} methods and report them to a {@link StatementMetricsListener}.
+ * <p>An execution is measured from the outermost executor call, the statements executed on behalf of it, such as
+ * the chunks and the batches of the {@link AutoMapperInterceptor}, are summed into it. The SQL generation is timed
+ * by wrapping the {@link SqlSource} of the statements, the execution by the {@link StatementHandler} and the batch
+ * flushes, and the row mapping by the {@link ResultSetHandler}. It must be added after the
+ * {@link AutoMapperInterceptor}, so it wraps the executor outermost.
+ * <p>The cursors, such as {@code selectAllCursor} which also backs {@code selectAllStream}, are measured until
+ * they are opened. Their rows are fetched and mapped by the caller afterwards, so they report neither the mapping
+ * nor the rows.
+ *
+ * @author Richard Zhang
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {}),
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class}),
+        @Signature(type = ResultSetHandler.class, method = "handleResultSets", args = {Statement.class})
+})
+class MetricsInterceptor implements Interceptor {
+
+    private final ThreadLocal<Sample> currentSample = new ThreadLocal<>();
+
+    private final Map<String, MethodKey> statements = new ConcurrentHashMap<>();
+
+    private final StatementMetricsListener listener;
+
+    MetricsInterceptor(StatementMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Measure the statement, the returned {@link SqlSource} must replace the one of the statement.
+     */
+    SqlSource addStatement(MappedStatement ms, Class<?> mapperType, String methodName) {
+        statements.put(ms.getId(), new MethodKey(mapperType, methodName));
+
+        return new MeasuredSqlSource(ms.getSqlSource());
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Sample sample = currentSample.get();
+        Object target = invocation.getTarget();
+
+        if (target instanceof Executor) {
+            if (sample == null && invocation.getArgs().length > 0) {
+                return measure(invocation);
+            }
+            if (sample != null && invocation.getArgs().length == 0) {
+                return timeExecution(invocation, sample);
+            }
+        } else if (sample != null && target instanceof StatementHandler) {
+            return timeExecution(invocation, sample);
+        } else if (sample != null && target instanceof ResultSetHandler) {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                sample.mappingNanos += System.nanoTime() - start;
+            }
+        }
+        return invocation.proceed();
+    }
+
+    private Object measure(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MethodKey methodKey = statements.get(((MappedStatement) args[0]).getId());
+        if (methodKey == null) {
+            return invocation.proceed();
+        }
+
+        Sample sample = new Sample();
+        currentSample.set(sample);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            currentSample.remove();
+        }
+
+        int rows = result instanceof List<?> list ? list.size() : result instanceof Integer count ? count : 0;
+        int batchSize = args[1] instanceof ParamMap<?> paramMap && paramMap.containsKey(AutoMapperProvider.ENTITIES)
+                && paramMap.get(AutoMapperProvider.ENTITIES) instanceof Collection<?> entities ? entities.size() : 0;
+        listener.onExecuted(new StatementMetrics(methodKey.mapperType(), methodKey.methodName(),
+                sample.generationNanos, sample.executionNanos, sample.mappingNanos, rows, batchSize));
+        return result;
+    }
+
+    // The rows are mapped within the statement execution, so the mapping time is excluded
+    private static Object timeExecution(Invocation invocation, Sample sample) throws Throwable {
+        long mappingNanos = sample.mappingNanos;
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            sample.executionNanos += System.nanoTime() - start - (sample.mappingNanos - mappingNanos);
+        }
+    }
+
+    /**
+     * Time the SQL generation of the wrapped {@link SqlSource} into the current sample.
+     */
+    private class MeasuredSqlSource implements SqlSource {
+
+        private final SqlSource sqlSource;
+
+        private MeasuredSqlSource(SqlSource sqlSource) {
+            this.sqlSource = sqlSource;
+        }
+
+        @Override
+        public BoundSql getBoundSql(Object parameterObject) {
+            Sample sample = currentSample.get();
+            if (sample == null)
+                return sqlSource.getBoundSql(parameterObject);
+
+            long start = System.nanoTime();
+            try {
+                return sqlSource.getBoundSql(parameterObject);
+            } finally {
+                sample.generationNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private static class Sample {
+
+        private long generationNanos;
+
+        private long executionNanos;
+
+        private long mappingNanos;
+    }
+
+    private record MethodKey(Class<?> mapperType, String methodName) {
+    }
+}
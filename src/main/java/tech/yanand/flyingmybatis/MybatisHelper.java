@@ -16,24 +16,45 @@
 
 package tech.yanand.flyingmybatis;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlSource;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ReflectionUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 class MybatisHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(MybatisHelper.class);
 
+    private static final String RESULT_MAP_SUFFIX = ".AutoResultMap";
+
     private MybatisHelper() {
         // Instantiation is not allowed
     }
 
-    static void setMappedStatementKeys(Configuration configuration, Class<?> mapperInterface, String methodName) {
+    static void setMappedStatementKeys(Configuration configuration, Class<?> mapperInterface, String methodName,
+                                       KeyGenerator keyGenerator) {
         MappedStatement mappedStatement = configuration.getMappedStatement(mapperInterface.getName() + methodName);
 
         LOG.info("Set key information for MappedStatement: [{}]", mappedStatement.getId());
@@ -44,28 +65,149 @@ class MybatisHelper {
         setFieldValue(mappedStatement, "keyProperties", keyProperties);
         setFieldValue(mappedStatement, "keyColumns", keyColumns);
 
-        if (tableInfo.getKeyType() == PrimaryKey.KeyType.AUTO) {
-            setFieldValue(mappedStatement, "keyGenerator", Jdbc3KeyGenerator.INSTANCE);
+        if (keyGenerator != null) {
+            setFieldValue(mappedStatement, "keyGenerator", keyGenerator);
         }
     }
 
-    static void setFieldValue(Object entity, String fieldName, Object fieldValue) {
-        Field field = ReflectionUtils.findField(entity.getClass(), fieldName);
-        if (field != null) {
-            ReflectionUtils.makeAccessible(field);
-            ReflectionUtils.setField(field, entity, fieldValue);
-        } else {
-            throw new IllegalStateException("Could not set field [" + fieldName + "].");
+    // The key generator is shared by the insert statements of a mapper, so are the reserved sequence keys
+    static KeyGenerator createKeyGenerator(TableInfo tableInfo, Dialect dialect,
+                                           SnowflakeIdGenerator snowflakeIdGenerator) {
+        ColumnInfo keyColumnInfo = tableInfo.getPrimaryKeyColumnInfo();
+        return switch (tableInfo.getKeyType()) {
+            case AUTO -> Jdbc3KeyGenerator.INSTANCE;
+            case UUID -> new ClientKeyGenerator(keyColumnInfo, executor -> UUID.randomUUID());
+            case UUID_V7 -> new ClientKeyGenerator(keyColumnInfo, executor -> UuidV7Generator.next());
+            case SNOWFLAKE -> new ClientKeyGenerator(keyColumnInfo, executor -> snowflakeIdGenerator.next());
+            case SEQUENCE -> new ClientKeyGenerator(keyColumnInfo, new SequenceAllocator(
+                    dialect.nextSequenceValue(tableInfo.getSequence()), tableInfo.getAllocationSize())::next);
+            // The input keys are set by the caller
+            case INPUT -> null;
+        };
+    }
+
+    static void setMappedStatementSqlSource(Configuration configuration, Class<?> mapperInterface, String methodName,
+                                           SqlSource sqlSource) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(mapperInterface.getName() + methodName);
+
+        LOG.info("Set {} for MappedStatement: [{}]", sqlSource.getClass().getSimpleName(), mappedStatement.getId());
+
+        setFieldValue(mappedStatement, "sqlSource", sqlSource);
+    }
+
+    static void setMappedStatementFetchSize(Configuration configuration, Class<?> mapperInterface, String methodName,
+                                            Integer fetchSize) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(mapperInterface.getName() + methodName);
+
+        LOG.info("Set fetch size [{}] for MappedStatement: [{}]", fetchSize, mappedStatement.getId());
+
+        setFieldValue(mappedStatement, "fetchSize", fetchSize);
+    }
+
+    static void setMappedStatementResultMap(Configuration configuration, Class<?> mapperInterface, String methodName,
+                                            ResultMap resultMap) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(mapperInterface.getName() + methodName);
+
+        LOG.info("Set ResultMap [{}] for MappedStatement: [{}]", resultMap.getId(), mappedStatement.getId());
+
+        setFieldValue(mappedStatement, "resultMaps", List.of(resultMap));
+    }
+
+    // Every column is mapped explicitly, so no mapping is discovered per result set and no camel case flag is needed
+    static ResultMap addResultMap(Configuration configuration, Class<?> mapperInterface) {
+        String id = mapperInterface.getName() + RESULT_MAP_SUFFIX;
+        if (configuration.hasResultMap(id)) {
+            return configuration.getResultMap(id);
         }
+
+        TableInfo tableInfo = MetaDataCache.getTableInfo(mapperInterface);
+        ResultMap resultMap = buildResultMap(configuration, id, tableInfo.getDomainType(), tableInfo.getColumnInfos(),
+                tableInfo.getPrimaryKeyColumnInfo());
+        configuration.addResultMap(resultMap);
+
+        LOG.info("Added ResultMap: [{}]", id);
+
+        return resultMap;
     }
 
-    static Object getFieldValue(Object entity, String fieldName) {
+    static void registerTypeHandlers(Configuration configuration) {
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        if (!typeHandlerRegistry.hasTypeHandler(UUID.class)) {
+            typeHandlerRegistry.register(UUID.class, new UuidTypeHandler());
+
+            LOG.info("Registered TypeHandler of [{}]", UUID.class.getName());
+        }
+    }
+
+    static ResultMap buildResultMap(Configuration configuration, String id, Class<?> type, List<ColumnInfo> columnInfos,
+                                    ColumnInfo idColumnInfo) {
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        List<ResultMapping> resultMappings = new ArrayList<>(columnInfos.size());
+        boolean autoMapped = false;
+        for (ColumnInfo columnInfo : columnInfos) {
+            Class<?> javaType = columnInfo.getJavaType();
+            if (!typeHandlerRegistry.hasTypeHandler(javaType)) {
+                if (!Map.class.isAssignableFrom(type)) {
+                    LOG.info("No TypeHandler of [{}], column [{}] of ResultMap [{}] is left to the auto-mapping",
+                            javaType.getName(), columnInfo.getColumnName(), id);
+                    autoMapped = true;
+                    continue;
+                }
+                // The maps of the projections take the values as read, they are converted by the projections
+                javaType = Object.class;
+            }
+
+            ResultMapping.Builder builder = new ResultMapping.Builder(configuration, columnInfo.getFieldName(),
+                    columnInfo.getColumnName(), javaType);
+            if (columnInfo == idColumnInfo) {
+                builder.flags(List.of(ResultFlag.ID));
+            }
+            resultMappings.add(builder.build());
+        }
+        // The auto-mapping of the configuration applies to the unmapped columns only if it is not disabled
+        return new ResultMap.Builder(configuration, id, type, resultMappings, autoMapped ? null : false).build();
+    }
+
+    static Dialect detectDialect(Configuration configuration) {
+        try (Connection connection = configuration.getEnvironment().getDataSource().getConnection()) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            Dialect dialect = findDialect(productName);
+
+            LOG.info("Detected dialect [{}] of DB: [{}]", dialect, productName);
+
+            return dialect;
+        } catch (SQLException e) {
+            LOG.warn("Could not detect the dialect of DB, fall back to [{}]", BuiltInDialect.STANDARD, e);
+            return BuiltInDialect.STANDARD;
+        }
+    }
+
+    // The dialects provided by the application take precedence over the built-in ones
+    private static Dialect findDialect(String productName) {
+        for (Dialect dialect : ServiceLoader.load(Dialect.class)) {
+            if (dialect.supports(productName))
+                return dialect;
+        }
+        return BuiltInDialect.of(productName);
+    }
+
+    static <T> Stream<T> toStream(Cursor<T> cursor) {
+        return StreamSupport.stream(cursor.spliterator(), false).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    static void setFieldValue(Object entity, String fieldName, Object fieldValue) {
         Field field = ReflectionUtils.findField(entity.getClass(), fieldName);
         if (field != null) {
             ReflectionUtils.makeAccessible(field);
-            return ReflectionUtils.getField(field, entity);
+            ReflectionUtils.setField(field, entity, fieldValue);
         } else {
-            throw new IllegalStateException("Could not get field [" + fieldName + "].");
+            throw new IllegalStateException("Could not set field [" + fieldName + "].");
         }
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Thrown when an update of a {@link Version versioned} entity matches no row, because the row has been updated
+ * or deleted by another transaction since the entity was loaded.
+ *
+ * @author Richard Zhang
+ */
+public class OptimisticLockException extends OptimisticLockingFailureException {
+
+    private final transient Object entity;
+
+    /**
+     * Create the exception.
+     *
+     * @param tableName The table name.
+     * @param id        The primary key of the entity.
+     * @param entity    The entity which is not updated.
+     */
+    public OptimisticLockException(String tableName, Object id, Object entity) {
+        super("Row [" + id + "] of table [" + tableName + "] was updated or deleted by another transaction");
+        this.entity = entity;
+    }
+
+    /**
+     * @return The entity which is not updated.
+     */
+    public Object getEntity() {
+        return entity;
+    }
+}
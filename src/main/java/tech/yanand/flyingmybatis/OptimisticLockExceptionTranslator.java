@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+
+/**
+ * Translates the exceptions of the versioned mappers, an {@link OptimisticLockException} thrown by the
+ * {@link AutoMapperInterceptor} is rethrown itself, instead of the {@code MyBatisSystemException} wrapping the
+ * {@code PersistenceException} of MyBatis. The other exceptions are translated by the original translator.
+ *
+ * @author Richard Zhang
+ */
+class OptimisticLockExceptionTranslator implements PersistenceExceptionTranslator {
+
+    private final PersistenceExceptionTranslator translator;
+
+    OptimisticLockExceptionTranslator(PersistenceExceptionTranslator translator) {
+        this.translator = translator;
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException optimisticLockException)
+                return optimisticLockException;
+        }
+        return translator == null ? null : translator.translateExceptionIfPossible(ex);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The SQL source of the {@code selectPageAfter} and {@code selectPageByColumnAfter} statements, built of the dialect
+ * of its configuration. The SQL of each column and of the first and the following pages is built only once.
+ *
+ * @author Richard Zhang
+ */
+class PageSqlSource implements SqlSource {
+
+    private final Map<String, SqlSource> sqlSources = new ConcurrentHashMap<>();
+
+    private final Configuration configuration;
+
+    private final TableInfo tableInfo;
+
+    private final Dialect dialect;
+
+    /** Whether the page is filtered by the {@code column} parameter */
+    private final boolean byColumn;
+
+    PageSqlSource(Configuration configuration, TableInfo tableInfo, Dialect dialect, boolean byColumn) {
+        this.configuration = configuration;
+        this.tableInfo = tableInfo;
+        this.dialect = dialect;
+        this.byColumn = byColumn;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        Map<?, ?> params = (Map<?, ?>) parameterObject;
+        AutoMapperProvider.checkLimit((Integer) params.get(AutoMapperProvider.LIMIT));
+        if (byColumn)
+            requireNonNull(params.get("value"));
+
+        // The unknown columns are rejected by the table info, so the shapes are bounded by the columns
+        String column = byColumn ? (String) params.get("column") : null;
+        boolean afterLastId = nonNull(params.get(AutoMapperProvider.LAST_ID));
+        SqlSource sqlSource = sqlSources.computeIfAbsent(column + ":" + afterLastId, shape -> new RawSqlSource(
+                configuration, byColumn
+                        ? AutoMapperProvider.selectPageByColumnAfterSql(tableInfo, column, afterLastId, dialect)
+                        : AutoMapperProvider.selectPageAfterSql(tableInfo, afterLastId, dialect), ParamMap.class));
+        return sqlSource.getBoundSql(parameterObject);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.Map;
+
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The SQL source of a statement whose SQL never changes. It is built only once when the mapper is processed,
+ * so the SQL and its parameter mappings are reused by every call.
+ *
+ * @author Richard Zhang
+ */
+class PrebuiltSqlSource implements SqlSource {
+
+    private final SqlSource sqlSource;
+
+    /** The parameter that can not be null, or {@code null} if the statement has no parameter */
+    private final String requiredParam;
+
+    private final String message;
+
+    PrebuiltSqlSource(SqlSource sqlSource) {
+        this(sqlSource, null, null);
+    }
+
+    PrebuiltSqlSource(SqlSource sqlSource, String requiredParam, String message) {
+        this.sqlSource = sqlSource;
+        this.requiredParam = requiredParam;
+        this.message = message;
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        if (nonNull(requiredParam))
+            requireNonNull(((Map<?, ?>) parameterObject).get(requiredParam), message);
+
+        return sqlSource.getBoundSql(parameterObject);
+    }
+}
@@ -33,12 +33,27 @@ import java.lang.annotation.Target;
 public @interface PrimaryKey {
 
     /**
-     * Configuring the primary key is auto-increment, UUID or input.
+     * Configuring the primary key is auto-increment, UUID, UUIDv7, Snowflake ID, sequence or input.
      *
      * @return Key type.
      */
     KeyType keyType() default KeyType.AUTO;
 
+    /**
+     * The DB sequence of the {@link KeyType#SEQUENCE SEQUENCE} key.
+     *
+     * @return The sequence name.
+     */
+    String sequence() default "";
+
+    /**
+     * The count of the {@link KeyType#SEQUENCE SEQUENCE} keys reserved by each call of the sequence,
+     * it must equal the {@code INCREMENT BY} of the sequence.
+     *
+     * @return The allocation size.
+     */
+    int allocationSize() default 50;
+
     /**
      * The type of primary key.
      *
@@ -52,10 +67,31 @@ public @interface PrimaryKey {
         AUTO,
 
         /**
-         * Generated by Java {@link java.util.UUID}
+         * Generated by Java {@link java.util.UUID#randomUUID()}. The key field can be a {@link java.util.UUID} or
+         * a {@link String}.
          */
         UUID,
 
+        /**
+         * Generated as a time-ordered version 7 {@link java.util.UUID}, so the inserts are appended to the
+         * primary key index. The key field can be a {@link java.util.UUID} or a {@link String}.
+         */
+        UUID_V7,
+
+        /**
+         * Generated as a time-ordered 64-bit Snowflake ID of the node configured by
+         * {@link AutoMapperProcessor#setNodeId(int)}. The key field can be a {@link Long} or a {@link String}.
+         */
+        SNOWFLAKE,
+
+        /**
+         * Allocated from the DB {@link PrimaryKey#sequence() sequence} in blocks of
+         * {@link PrimaryKey#allocationSize() allocationSize} keys, each value of the sequence is the first key of
+         * a block. The keys of a block are handed out from memory, so the keys are set before the insert without
+         * a round trip per entity. The key field can be a {@link Long} or a {@link String}.
+         */
+        SEQUENCE,
+
         /**
          * Custom input key.
          */
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * The bounded LRU cache of the entities of a table by the primary key, configured by {@link EntityCache}.
+ * <p>The entities are copied in and out, so the callers never share an instance with the cache. The cached copies
+ * are never changed, so they are copied outside the lock, which only guards the entries.
+ * Every invalidation increases the generation of the cache, the entities loaded before it are not put
+ * into the cache, so a load racing with an update never caches the stale entity.
+ *
+ * @author Richard Zhang
+ */
+class PrimaryKeyCache {
+
+    private final TableInfo tableInfo;
+
+    private final MethodHandle constructor;
+
+    private final long ttlNanos;
+
+    private final Map<Object, Entry> entries;
+
+    private long generation;
+
+    PrimaryKeyCache(TableInfo tableInfo, EntityCache entityCache) {
+        if (entityCache.maxSize() < 1 || entityCache.ttlSeconds() < 1)
+            throw new IllegalStateException("Entity cache of [" + tableInfo.getDomainName() + "] must be positive.");
+
+        this.tableInfo = tableInfo;
+        this.constructor = compileConstructor(tableInfo.getDomainType());
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(entityCache.ttlSeconds());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > entityCache.maxSize();
+            }
+        };
+    }
+
+    Object get(Object id) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(id);
+            if (isNull(entry))
+                return null;
+
+            if (entry.expiresAt() - System.nanoTime() < 0) {
+                entries.remove(id);
+                return null;
+            }
+        }
+        return copy(entry.entity());
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Put the entities loaded in the {@code generation}, they are ignored if the cache is invalidated since then.
+     */
+    void putAll(Collection<?> entities, long generation) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        Map<Object, Entry> loadedEntries = new LinkedHashMap<>();
+        for (Object entity : entities) {
+            Object id = tableInfo.getPrimaryKeyColumnInfo().getValue(entity);
+            loadedEntries.put(id, new Entry(copy(entity), expiresAt));
+        }
+
+        synchronized (this) {
+            if (generation == this.generation)
+                entries.putAll(loadedEntries);
+        }
+    }
+
+    synchronized void invalidate(Collection<?> ids) {
+        generation++;
+        ids.forEach(entries::remove);
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    private Object copy(Object entity) {
+        Object copy;
+        try {
+            copy = constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not instantiate [" + tableInfo.getDomainName() + "].", e);
+        }
+
+        for (ColumnInfo columnInfo : tableInfo.getColumnInfos()) {
+            columnInfo.setValue(copy, columnInfo.getValue(entity));
+        }
+        return copy;
+    }
+
+    private static MethodHandle compileConstructor(Class<?> domainType) {
+        try {
+            Constructor<?> constructor = domainType.getDeclaredConstructor();
+            ReflectionUtils.makeAccessible(constructor);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cached entity [" + domainType.getName()
+                    + "] must have a no-argument constructor.", e);
+        }
+    }
+
+    private record Entry(Object entity, long expiresAt) {
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A lightweight type that a subset of the entity columns is selected and mapped into. It is either a record
+ * whose components, or an interface whose getters are named after the {@link Column} fields of the entity.
+ * <p>The rows are mapped into a {@link Map} of the projected fields first, then converted into the record
+ * by its canonical constructor, or into the interface by a proxy backed by the map.
+ *
+ * @author Richard Zhang
+ */
+final class Projection {
+
+    private final Class<?> type;
+
+    /** The projected columns of the entity, in the order of the properties of the projection type */
+    private final List<ColumnInfo> columnInfos;
+
+    /** The projected columns separated by commas, used for select statements */
+    private final String selectColumns;
+
+    private final Function<Map<String, Object>, Object> converter;
+
+    private Projection(Class<?> type, List<ColumnInfo> columnInfos, Function<Map<String, Object>, Object> converter) {
+        this.type = type;
+        this.columnInfos = columnInfos;
+        this.selectColumns = columnInfos.stream().map(ColumnInfo::getColumnName).collect(Collectors.joining(", "));
+        this.converter = converter;
+    }
+
+    static Projection of(TableInfo tableInfo, Class<?> type) {
+        if (type.isRecord()) {
+            return ofRecord(tableInfo, type);
+        } else if (type.isInterface()) {
+            return ofInterface(tableInfo, type);
+        }
+        throw new IllegalArgumentException("Projection [" + type.getName() + "] must be a record or an interface.");
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    List<ColumnInfo> getColumnInfos() {
+        return columnInfos;
+    }
+
+    String getSelectColumns() {
+        return selectColumns;
+    }
+
+    Object convert(Map<String, Object> row) {
+        return converter.apply(row);
+    }
+
+    private static Projection ofRecord(TableInfo tableInfo, Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        List<ColumnInfo> columnInfos = new ArrayList<>(components.length);
+        for (RecordComponent component : components) {
+            columnInfos.add(getColumnInfo(tableInfo, type, component.getName()));
+        }
+
+        MethodHandle constructor = compileConstructor(type, components);
+        return new Projection(type, columnInfos, row -> {
+            Object[] args = new Object[columnInfos.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = row.get(columnInfos.get(i).getFieldName());
+            }
+            try {
+                return constructor.invokeExact(args);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not construct projection [" + type.getName() + "].", e);
+            }
+        });
+    }
+
+    private static Projection ofInterface(TableInfo tableInfo, Class<?> type) {
+        List<ColumnInfo> columnInfos = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                if (method.getParameterCount() > 0)
+                    throw new IllegalArgumentException("Projection method [" + method.getName() + "] must be a getter.");
+
+                columnInfos.add(getColumnInfo(tableInfo, type, toPropertyName(method.getName())));
+            }
+        }
+
+        ClassLoader classLoader = type.getClassLoader();
+        Class<?>[] interfaces = {type};
+        return new Projection(type, columnInfos, row -> Proxy.newProxyInstance(classLoader, interfaces,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> type.getSimpleName() + row;
+                    default -> method.isDefault()
+                            ? InvocationHandler.invokeDefault(proxy, method, args)
+                            : row.get(toPropertyName(method.getName()));
+                }));
+    }
+
+    private static ColumnInfo getColumnInfo(TableInfo tableInfo, Class<?> type, String propertyName) {
+        return tableInfo.getColumnInfos().stream()
+                .filter(columnInfo -> columnInfo.getFieldName().equals(propertyName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Property [" + propertyName + "] of projection ["
+                        + type.getName() + "] is not a column of [" + tableInfo.getDomainName() + "]."));
+    }
+
+    // Both the bean getters (getName, isActive) and the record style accessors (name) are supported
+    private static String toPropertyName(String methodName) {
+        int prefixLength = 0;
+        if (methodName.length() > 3 && methodName.startsWith("get") && Character.isUpperCase(methodName.charAt(3))) {
+            prefixLength = 3;
+        } else if (methodName.length() > 2 && methodName.startsWith("is") && Character.isUpperCase(methodName.charAt(2))) {
+            prefixLength = 2;
+        }
+        return prefixLength == 0 ? methodName
+                : Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+    }
+
+    private static MethodHandle compileConstructor(Class<?> type, RecordComponent[] components) {
+        Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+            ReflectionUtils.makeAccessible(constructor);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Could not access the constructor of [" + type.getName() + "].", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Validate the tables and columns of the entities against the JDBC {@link DatabaseMetaData}.
+ *
+ * @author Richard Zhang
+ */
+final class SchemaValidator {
+
+    private SchemaValidator() {
+        // Instantiation is not allowed
+    }
+
+    /**
+     * Validate the tables of the mappers, and report every missing table or column.
+     *
+     * @return The problems found, empty if the schema matches.
+     */
+    static List<String> validate(DataSource dataSource, Collection<Class<?>> mapperTypes) {
+        List<String> problems = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Class<?> mapperType : mapperTypes) {
+                TableInfo tableInfo = MetaDataCache.getTableInfo(mapperType);
+                Set<String> columns = getColumns(connection, metaData, tableInfo.getTableName());
+                if (columns.isEmpty()) {
+                    problems.add(String.format("Table [%s] of [%s] does not exist.", tableInfo.getTableName(),
+                            tableInfo.getDomainName()));
+                    continue;
+                }
+
+                for (ColumnInfo columnInfo : tableInfo.getColumnInfos()) {
+                    if (!columns.contains(columnInfo.getColumnName().toUpperCase(Locale.ROOT))) {
+                        problems.add(String.format("Column [%s] of table [%s] mapped by [%s.%s] does not exist.",
+                                columnInfo.getColumnName(), tableInfo.getTableName(), tableInfo.getDomainName(),
+                                columnInfo.getFieldName()));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not validate the schema.", e);
+        }
+        return problems;
+    }
+
+    // The column names in upper case, empty if the table does not exist
+    private static Set<String> getColumns(Connection connection, DatabaseMetaData metaData, String tableName)
+            throws SQLException {
+        String schema = null;
+        String table = tableName;
+        int dot = tableName.lastIndexOf('.');
+        if (dot > 0) {
+            schema = tableName.substring(0, dot);
+            table = tableName.substring(dot + 1);
+        }
+
+        // The unquoted identifiers are stored in the case of the DB
+        Set<String> columns = getColumns(connection, metaData, toStoredCase(metaData, schema),
+                toStoredCase(metaData, table));
+        if (columns.isEmpty()) {
+            columns = getColumns(connection, metaData, schema, table);
+        }
+        return columns;
+    }
+
+    private static Set<String> getColumns(Connection connection, DatabaseMetaData metaData, String schema,
+                                          String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), escape(metaData, schema),
+                escape(metaData, table), null)) {
+            while (resultSet.next()) {
+                columns.add(resultSet.getString("COLUMN_NAME").toUpperCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    private static String toStoredCase(DatabaseMetaData metaData, String identifier) throws SQLException {
+        if (identifier == null) {
+            return null;
+        } else if (metaData.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase(Locale.ROOT);
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            return identifier.toLowerCase(Locale.ROOT);
+        }
+        return identifier;
+    }
+
+    // The names are patterns, so the wildcards in them must be escaped, e.g. the underscore
+    private static String escape(DatabaseMetaData metaData, String name) throws SQLException {
+        if (name == null) {
+            return null;
+        }
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+}
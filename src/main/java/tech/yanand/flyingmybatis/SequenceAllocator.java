@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.executor.Executor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates the {@link PrimaryKey.KeyType#SEQUENCE SEQUENCE} keys in blocks by the pooled optimizer,
+ * each value of the sequence is the first key of a block of {@code allocationSize} keys.
+ * <p>The keys of the current block are handed out by an atomic counter. Only the threads which exhaust a block
+ * wait for the next value of the sequence, which is selected on the connection of the insert.
+ *
+ * @author Richard Zhang
+ */
+class SequenceAllocator {
+
+    private final String nextValueSql;
+
+    private final int allocationSize;
+
+    private volatile Block block = new Block(0, 0);
+
+    SequenceAllocator(String nextValueSql, int allocationSize) {
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    long next(Executor executor) throws SQLException {
+        while (true) {
+            Block current = block;
+            long key = current.next.getAndIncrement();
+            if (key < current.limit) {
+                return key;
+            }
+
+            synchronized (this) {
+                // Another thread may have allocated the next block meanwhile
+                if (block == current) {
+                    block = allocate(executor);
+                }
+            }
+        }
+    }
+
+    private Block allocate(Executor executor) throws SQLException {
+        Connection connection = executor.getTransaction().getConnection();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(nextValueSql)) {
+            if (!resultSet.next())
+                throw new SQLException("No value is selected by: " + nextValueSql);
+
+            long first = resultSet.getLong(1);
+            return new Block(first, first + allocationSize);
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long limit;
+
+        private Block(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+}
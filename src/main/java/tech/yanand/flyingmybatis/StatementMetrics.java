@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+/**
+ * The metrics of an execution of an {@link AutoMapper} method. The statements executed on behalf of the method,
+ * such as the chunks of {@code selectAllById} or the entities of {@code updateAll}, are summed into it.
+ *
+ * @param mapperType      The mapper interface.
+ * @param methodName      The name of the {@link AutoMapper} method.
+ * @param generationNanos The nanoseconds spent to generate the SQL.
+ * @param executionNanos  The nanoseconds spent to execute the SQL in DB, excluding the row mapping.
+ * @param mappingNanos    The nanoseconds spent to map the rows into the results.
+ * @param rows            The count of rows read, or affected by an update.
+ * @param batchSize       The count of the entities of a batch method, or {@code 0} if the method is not a batch.
+ * @author Richard Zhang
+ */
+public record StatementMetrics(Class<?> mapperType, String methodName, long generationNanos, long executionNanos,
+                               long mappingNanos, int rows, int batchSize) {
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+/**
+ * Listen to the metrics of every execution of the {@link AutoMapper} methods, set it by
+ * {@link AutoMapperProcessor#setMetricsListener(StatementMetricsListener)}.
+ * <p>It is called on the executing thread after the statement succeeds, so it must be fast and thread safe.
+ * {@link StatementMetricsRecorder} is a ready implementation whose counters can be exported to any metrics backend.
+ *
+ * @author Richard Zhang
+ */
+@FunctionalInterface
+public interface StatementMetricsListener {
+
+    /**
+     * Called after an {@link AutoMapper} method is executed.
+     *
+     * @param metrics The metrics of the execution.
+     */
+    void onExecuted(StatementMetrics metrics);
+}
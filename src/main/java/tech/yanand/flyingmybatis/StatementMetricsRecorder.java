@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record the {@link StatementMetrics} into counters and histograms by the mapper and the method, which are cheap
+ * to update from many threads. Export them to any metrics backend by reading {@link #getStats()} periodically.
+ *
+ * @author Richard Zhang
+ */
+public class StatementMetricsRecorder implements StatementMetricsListener {
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    @Override
+    public void onExecuted(StatementMetrics metrics) {
+        String key = metrics.mapperType().getName() + "." + metrics.methodName();
+        Stats methodStats = stats.get(key);
+        if (methodStats == null) {
+            methodStats = stats.computeIfAbsent(key, k -> new Stats());
+        }
+        methodStats.record(metrics);
+    }
+
+    /**
+     * Get the stats by the mapper and the method, keyed by {@code <mapper class name>.<method name>}.
+     *
+     * @return The live stats, which keep counting.
+     */
+    public Map<String, Stats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * The stats of an {@link AutoMapper} method of a mapper.
+     */
+    public static class Stats {
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder batchEntities = new LongAdder();
+
+        private final Histogram generation = new Histogram();
+
+        private final Histogram execution = new Histogram();
+
+        private final Histogram mapping = new Histogram();
+
+        void record(StatementMetrics metrics) {
+            rows.add(metrics.rows());
+            batchEntities.add(metrics.batchSize());
+            generation.record(metrics.generationNanos());
+            execution.record(metrics.executionNanos());
+            mapping.record(metrics.mappingNanos());
+        }
+
+        /**
+         * @return The count of executions.
+         */
+        public long getCount() {
+            return execution.getCount();
+        }
+
+        /**
+         * @return The total rows read or affected.
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        /**
+         * @return The total entities of the batch executions.
+         */
+        public long getBatchEntities() {
+            return batchEntities.sum();
+        }
+
+        /**
+         * @return The nanoseconds spent to generate the SQL.
+         */
+        public Histogram getGeneration() {
+            return generation;
+        }
+
+        /**
+         * @return The nanoseconds spent to execute the SQL.
+         */
+        public Histogram getExecution() {
+            return execution;
+        }
+
+        /**
+         * @return The nanoseconds spent to map the rows.
+         */
+        public Histogram getMapping() {
+            return mapping;
+        }
+    }
+
+    /**
+     * A histogram of nanoseconds in power of two buckets, the bucket {@code i} counts the values in
+     * {@code [2^i, 2^(i+1))}, and the bucket {@code 0} also counts {@code 0}.
+     */
+    public static class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(value | 1));
+            count.increment();
+            totalNanos.add(value);
+        }
+
+        /**
+         * @return The count of values.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return The sum of values in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * @return A copy of the bucket counts.
+         */
+        public long[] getBucketCounts() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+            }
+            return counts;
+        }
+
+        /**
+         * Get the upper bound of the bucket which the percentile falls in, it is at most twice the exact value.
+         *
+         * @param percentile The percentile in {@code [0, 1]}, e.g. {@code 0.99}.
+         * @return The upper bound in nanoseconds, or {@code 0} if no value is recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] counts = getBucketCounts();
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
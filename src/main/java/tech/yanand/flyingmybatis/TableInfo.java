@@ -18,7 +18,9 @@ package tech.yanand.flyingmybatis;
 
 import tech.yanand.flyingmybatis.PrimaryKey.KeyType;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Information after converting object into database table information.
@@ -34,18 +36,45 @@ class TableInfo {
     /** The name of the primary key field */
     private String primaryKeyField;
 
+    /** The column information of the primary key */
+    private ColumnInfo primaryKeyColumnInfo;
+
     /** Generation of primary keys */
     private KeyType keyType;
 
+    /** The column information of the version, or {@code null} if the entity has no version */
+    private ColumnInfo versionColumnInfo;
+
+    /** The sequence of the sequence keys */
+    private String sequence;
+
+    /** The count of keys reserved by each call of the sequence */
+    private int allocationSize;
+
     /** The name of the generated domain object class */
     private String domainName;
 
+    /** The generated domain object class */
+    private Class<?> domainType;
+
+    /** The cache of the entities by the primary key, or {@code null} if the entity is not cached */
+    private PrimaryKeyCache cache;
+
+    /** The snapshots of the loaded entities, or {@code null} if the entity is not tracked */
+    private EntitySnapshots snapshots;
+
     /** Field information for the generated domain object class */
     private List<ColumnInfo> columnInfos;
 
+    /** The column information by the field names and the column names */
+    private Map<String, ColumnInfo> columnIndex;
+
     /** Basic columns separated by commas, user queries and insert statements */
     private String baseColumns;
 
+    /** All mapped columns separated by commas, used for select statements */
+    private String selectColumns;
+
     /** Used to insert statements  */
     private String intoValues;
 
@@ -65,6 +94,14 @@ class TableInfo {
         this.domainName = domainName;
     }
 
+    public Class<?> getDomainType() {
+        return domainType;
+    }
+
+    public void setDomainType(Class<?> domainType) {
+        this.domainType = domainType;
+    }
+
     public String getPrimaryKey() {
         return primaryKey;
     }
@@ -81,6 +118,14 @@ class TableInfo {
         this.primaryKeyField = primaryKeyField;
     }
 
+    public ColumnInfo getPrimaryKeyColumnInfo() {
+        return primaryKeyColumnInfo;
+    }
+
+    public void setPrimaryKeyColumnInfo(ColumnInfo primaryKeyColumnInfo) {
+        this.primaryKeyColumnInfo = primaryKeyColumnInfo;
+    }
+
     public KeyType getKeyType() {
         return keyType;
     }
@@ -89,12 +134,75 @@ class TableInfo {
         this.keyType = keyType;
     }
 
+    public ColumnInfo getVersionColumnInfo() {
+        return versionColumnInfo;
+    }
+
+    public void setVersionColumnInfo(ColumnInfo versionColumnInfo) {
+        this.versionColumnInfo = versionColumnInfo;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(String sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    public void setAllocationSize(int allocationSize) {
+        this.allocationSize = allocationSize;
+    }
+
+    public EntitySnapshots getSnapshots() {
+        return snapshots;
+    }
+
+    public void setSnapshots(EntitySnapshots snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    public PrimaryKeyCache getCache() {
+        return cache;
+    }
+
+    public void setCache(PrimaryKeyCache cache) {
+        this.cache = cache;
+    }
+
     public List<ColumnInfo> getColumnInfos() {
         return columnInfos;
     }
 
     public void setColumnInfos(List<ColumnInfo> columnInfos) {
         this.columnInfos = columnInfos;
+
+        Map<String, ColumnInfo> index = new HashMap<>();
+        for (ColumnInfo columnInfo : columnInfos) {
+            index.put(columnInfo.getColumnName(), columnInfo);
+            index.put(columnInfo.getFieldName(), columnInfo);
+        }
+        this.columnIndex = index;
+    }
+
+    /**
+     * Get the column information by the field name or the column name, so the names passed by the callers are
+     * never written into SQL directly.
+     *
+     * @param name The field name or the column name.
+     * @return The column information.
+     * @throws IllegalArgumentException If the entity has no such column.
+     */
+    public ColumnInfo getColumnInfo(String name) {
+        ColumnInfo columnInfo = columnIndex.get(name);
+        if (columnInfo == null)
+            throw new IllegalArgumentException("Table [" + tableName + "] has no column [" + name + "]");
+
+        return columnInfo;
     }
 
     public String getBaseColumns() {
@@ -105,6 +213,14 @@ class TableInfo {
         this.baseColumns = baseColumns;
     }
 
+    public String getSelectColumns() {
+        return selectColumns;
+    }
+
+    public void setSelectColumns(String selectColumns) {
+        this.selectColumns = selectColumns;
+    }
+
     public String getIntoValues() {
         return intoValues;
     }
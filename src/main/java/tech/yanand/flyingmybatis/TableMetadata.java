@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.util.List;
+
+/**
+ * The table metadata of an entity, generated at compile time by the {@link TableMetadataProcessor} into the class
+ * named {@code <entity class name>_TableMetadata}. {@link AutoMapper} loads it instead of scanning the entity
+ * by reflection, and only falls back to the reflection when it is missing.
+ *
+ * @param <E> The entity type.
+ * @author Richard Zhang
+ */
+public interface TableMetadata<E> {
+
+    /**
+     * The suffix of the generated class name.
+     */
+    String CLASS_SUFFIX = "_TableMetadata";
+
+    /**
+     * @return The entity type.
+     */
+    Class<E> getDomainType();
+
+    /**
+     * @return The table name.
+     */
+    String getTableName();
+
+    /**
+     * @return The columns, in the order of the fields of the entity.
+     */
+    List<ColumnMetadata<E>> getColumns();
+
+    /**
+     * @return The field of the {@link Version} column, or {@code null} if the entity has no version.
+     */
+    default String getVersionField() {
+        return null;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Generate the {@link TableMetadata} of every entity which has {@link Column} fields at compile time,
+ * so the entity is not scanned by reflection at runtime. Add the library to the annotation processor path:
+ * <pre>{@code
+ * annotationProcessor 'tech.yanand:flying-mybatis:x.y.z'
+ * }</pre>
+ * <p>The fields are accessed directly if they are not private, otherwise through their getters and setters.
+ * A field which has neither is left to the reflection. The types without a {@link PrimaryKey} are skipped
+ * with a warning. The keys and the versions which would be rejected at runtime are reported as compile errors.
+ *
+ * @author Richard Zhang
+ */
+@SupportedAnnotationTypes({"tech.yanand.flyingmybatis.Column", "tech.yanand.flyingmybatis.Table"})
+public class TableMetadataProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> entities = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Column.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                entities.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(Table.class)) {
+            entities.add((TypeElement) element);
+        }
+
+        for (TypeElement entity : entities) {
+            try {
+                generate(entity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement entity) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + TableMetadata.CLASS_SUFFIX;
+        String entityName = entity.getQualifiedName().toString();
+
+        Table table = entity.getAnnotation(Table.class);
+        String tableName = isNull(table) ? CaseFormatUtils.toTableName(entity.getSimpleName().toString()) : table.value();
+
+        StringBuilder columns = new StringBuilder();
+        boolean hasPrimaryKey = false;
+        boolean valid = true;
+        String versionField = null;
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            Column column = field.getAnnotation(Column.class);
+            PrimaryKey primaryKey = field.getAnnotation(PrimaryKey.class);
+            if (isNull(column)) {
+                if (nonNull(primaryKey))
+                    error(field, "Primary key [" + field.getSimpleName() + "] must be a column.");
+                if (nonNull(field.getAnnotation(Version.class)))
+                    error(field, "Version [" + field.getSimpleName() + "] must be a column.");
+                continue;
+            }
+            hasPrimaryKey |= nonNull(primaryKey);
+            if (nonNull(field.getAnnotation(Version.class))) {
+                versionField = field.getSimpleName().toString();
+                valid &= checkVersion(field);
+            }
+            if (nonNull(primaryKey))
+                valid &= checkPrimaryKey(field, primaryKey);
+
+            String fieldName = field.getSimpleName().toString();
+            String columnName = column.value().isEmpty() ? CaseFormatUtils.toColumnName(fieldName) : column.value();
+            if (!columns.isEmpty())
+                columns.append(",\n");
+            columns.append("            new ColumnMetadata<").append(entityName).append(">(").append(literal(fieldName)).append(", ")
+                    .append(literal(columnName)).append(", ")
+                    .append(erasure(field.asType())).append(".class, ")
+                    .append(isNull(primaryKey) ? "null" : "PrimaryKey.KeyType." + primaryKey.keyType()).append(", ")
+                    .append(isSequence(primaryKey)
+                            ? literal(primaryKey.sequence()) + ", " + primaryKey.allocationSize() + ", " : "")
+                    .append(getter(entity, field)).append(", ")
+                    .append(setter(entity, field)).append(")");
+        }
+
+        // Such as a DTO or a base class, it is resolved by reflection and fails only if it is the entity of a mapper
+        if (!hasPrimaryKey) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Table [" + tableName
+                    + "] has no primary key, its metadata is not generated.", entity);
+            return;
+        }
+        // The generated class would not compile either, so only the errors above are reported
+        if (!valid) {
+            return;
+        }
+
+        Filer filer = processingEnv.getFiler();
+        try (Writer writer = filer.createSourceFile(packageName.isEmpty() ? className : packageName + "." + className,
+                entity).openWriter()) {
+            if (!packageName.isEmpty())
+                writer.write("package " + packageName + ";\n\n");
+            writer.write("import tech.yanand.flyingmybatis.ColumnMetadata;\n"
+                    + "import tech.yanand.flyingmybatis.PrimaryKey;\n"
+                    + "import tech.yanand.flyingmybatis.TableMetadata;\n\n"
+                    + "import java.util.List;\n\n"
+                    + "@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n"
+                    + "public final class " + className + " implements TableMetadata<" + entityName + "> {\n\n"
+                    + "    private static final List<ColumnMetadata<" + entityName + ">> COLUMNS = List.of(\n"
+                    + columns + ");\n\n"
+                    + "    @Override\n"
+                    + "    public Class<" + entityName + "> getDomainType() {\n"
+                    + "        return " + entityName + ".class;\n"
+                    + "    }\n\n"
+                    + "    @Override\n"
+                    + "    public String getTableName() {\n"
+                    + "        return " + literal(tableName) + ";\n"
+                    + "    }\n\n"
+                    + "    @Override\n"
+                    + "    public List<ColumnMetadata<" + entityName + ">> getColumns() {\n"
+                    + "        return COLUMNS;\n"
+                    + "    }\n"
+                    + (isNull(versionField) ? "" : "\n"
+                    + "    @Override\n"
+                    + "    public String getVersionField() {\n"
+                    + "        return " + literal(versionField) + ";\n"
+                    + "    }\n")
+                    + "}\n");
+        }
+    }
+
+    private boolean checkPrimaryKey(VariableElement field, PrimaryKey primaryKey) {
+        String type = erasure(field.asType());
+        switch (primaryKey.keyType()) {
+            case UUID, UUID_V7 -> {
+                if (!type.equals("java.util.UUID") && !type.equals("java.lang.String")) {
+                    error(field, "Key [" + field.getSimpleName() + "] of " + primaryKey.keyType()
+                            + " must be a UUID or a String.");
+                    return false;
+                }
+            }
+            case SNOWFLAKE, SEQUENCE -> {
+                if (!type.equals("java.lang.Long") && !type.equals("long") && !type.equals("java.lang.String")) {
+                    error(field, "Key [" + field.getSimpleName() + "] of " + primaryKey.keyType()
+                            + " must be a Long or a String.");
+                    return false;
+                }
+            }
+            default -> {
+                // The DB or the caller sets the keys
+            }
+        }
+
+        if (isSequence(primaryKey)) {
+            if (primaryKey.sequence().isEmpty()) {
+                error(field, "Sequence key [" + field.getSimpleName() + "] must have a sequence.");
+                return false;
+            }
+            if (primaryKey.allocationSize() < 1) {
+                error(field, "Allocation size of sequence [" + primaryKey.sequence() + "] must be positive.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean checkVersion(VariableElement field) {
+        String type = erasure(field.asType());
+        if (!type.equals("java.lang.Integer") && !type.equals("int") && !type.equals("java.lang.Long")
+                && !type.equals("long")) {
+            error(field, "Version [" + field.getSimpleName() + "] must be an Integer or a Long.");
+            return false;
+        }
+        return true;
+    }
+
+    private String getter(TypeElement entity, VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        if (isAccessible(field))
+            return "entity -> entity." + fieldName;
+
+        String suffix = capitalize(fieldName);
+        boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            if (isAccessible(method) && method.getParameters().isEmpty()
+                    && (methodName.equals("get" + suffix) || isBoolean && methodName.equals("is" + suffix))) {
+                return "entity -> entity." + methodName + "()";
+            }
+        }
+        return "null";
+    }
+
+    private String setter(TypeElement entity, VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        String cast = "(" + boxed(field.asType()) + ") value";
+        if (isAccessible(field) && !field.getModifiers().contains(Modifier.FINAL))
+            return "(entity, value) -> entity." + fieldName + " = " + cast;
+
+        String methodName = "set" + capitalize(fieldName);
+        for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+            if (isAccessible(method) && method.getSimpleName().contentEquals(methodName)
+                    && method.getParameters().size() == 1) {
+                return "(entity, value) -> entity." + methodName + "(" + cast + ")";
+            }
+        }
+        return "null";
+    }
+
+    // The generated class is in the package of the entity, so only the private members are not accessible
+    private static boolean isAccessible(Element element) {
+        return !element.getModifiers().contains(Modifier.PRIVATE) && !element.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+                    .getQualifiedName().toString();
+        }
+        return erasure(type);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static boolean isSequence(PrimaryKey primaryKey) {
+        return nonNull(primaryKey) && primaryKey.keyType() == PrimaryKey.KeyType.SEQUENCE;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.nio.ByteBuffer;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Maps the {@link UUID} fields, which MyBatis has no type handler for, so the {@link PrimaryKey.KeyType#UUID UUID}
+ * keys can be {@link UUID} fields. Registered by the {@link AutoMapperProcessor} unless another one is registered.
+ * <p>The UUIDs are bound as objects, which the UUID columns of PostgreSQL, HSQLDB and H2 take, or as strings if the
+ * JDBC type is {@code VARCHAR} or {@code CHAR}. The values read are converted from UUIDs, 16 bytes or strings.
+ *
+ * @author Richard Zhang
+ */
+class UuidTypeHandler extends BaseTypeHandler<UUID> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, UUID parameter, JdbcType jdbcType)
+            throws SQLException {
+        if (jdbcType == JdbcType.VARCHAR || jdbcType == JdbcType.CHAR) {
+            ps.setString(i, parameter.toString());
+        } else {
+            ps.setObject(i, parameter);
+        }
+    }
+
+    @Override
+    public UUID getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toUuid(rs.getObject(columnName));
+    }
+
+    @Override
+    public UUID getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toUuid(rs.getObject(columnIndex));
+    }
+
+    @Override
+    public UUID getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toUuid(cs.getObject(columnIndex));
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null || value instanceof UUID) {
+            return (UUID) value;
+        }
+        if (value instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(value.toString());
+    }
+}
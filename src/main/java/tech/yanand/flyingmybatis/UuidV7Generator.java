@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the {@link PrimaryKey.KeyType#UUID_V7 UUID_V7} keys, the version 7 UUIDs of RFC 9562.
+ * <p>The 48 most significant bits are the Unix timestamp in milliseconds, so the keys are ordered by time and
+ * appended to the primary key index. The next 12 bits are a counter within the millisecond, so the keys generated by
+ * the JVM are monotonic, when the 4096 keys of a millisecond are exhausted, the keys borrow the next millisecond.
+ * The rest bits are random, drawn from {@link ThreadLocalRandom} instead of the shared {@code SecureRandom} of
+ * {@link UUID#randomUUID()}, and the counter is advanced by a single compare-and-set, so no thread waits for another.
+ *
+ * @author Richard Zhang
+ */
+final class UuidV7Generator {
+
+    private static final long VERSION = 0x7000L;
+
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /** The last timestamp shifted left by the counter bits, plus the last counter */
+    private static final AtomicLong LAST_STATE = new AtomicLong();
+
+    private UuidV7Generator() {
+    }
+
+    static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state = LAST_STATE.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSigBits = (state >>> COUNTER_BITS) << 16 | VERSION | state & COUNTER_MASK;
+        long leastSigBits = VARIANT | ThreadLocalRandom.current().nextLong() >>> 2;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.yanand.flyingmybatis;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the column field as the version of the optimistic locking, which must be an {@link Integer} or a
+ * {@link Long}. The updates only match the row of the same version and increment it, an update which matches
+ * no row throws an {@link OptimisticLockException}. The version of the entity is incremented after the update,
+ * and is set to {@code 0} before the insert if it is {@code null}.
+ * <p>{@code insertOrUpdate} and {@code insertAllOrUpdate} throw an {@link IllegalStateException}, as their update
+ * branch could not check the version, and would move the version of a newer row backwards.
+ *
+ * @author Richard Zhang
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Version {
+}
@@ -0,0 +1,54 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import tech.yanand.flyingmybatis.book.Author;
+import tech.yanand.flyingmybatis.book.AuthorMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class AuthorMapperTest {
+
+    @Autowired
+    private AuthorMapper authorMapper;
+
+    @Test
+    void insertAllocatesSequenceBlocks() {
+        // The key column has no default, so every insert fails unless the key is set before it is executed
+        Author author1 = new Author("author_1");
+        List<Author> authors = List.of(new Author("author_2"), new Author("author_3"), new Author("author_4"),
+                new Author("author_5"));
+        List<Author> batchedAuthors = List.of(new Author("author_6"), new Author("author_7"),
+                new Author("author_8"), new Author("author_9"));
+
+        assertEquals(1, authorMapper.insert(author1));
+        assertEquals(4, authorMapper.insertAll(authors));
+        assertEquals(4, authorMapper.insertAllInBatch(batchedAuthors, 3));
+
+        List<Author> allAuthors = new ArrayList<>(List.of(author1));
+        allAuthors.addAll(authors);
+        allAuthors.addAll(batchedAuthors);
+        // The 9 keys span 3 blocks of the sequence, the blocks are handed out without a gap
+        long firstId = author1.getId();
+        assertEquals(LongStream.range(firstId, firstId + 9).boxed().toList(),
+                allAuthors.stream().map(Author::getId).toList());
+        for (Author author : allAuthors) {
+            Author selected = authorMapper.selectById(author.getId());
+
+            assertNotNull(selected);
+            assertEquals(author.getName(), selected.getName());
+        }
+        assertEquals(9, authorMapper.countAll());
+    }
+}
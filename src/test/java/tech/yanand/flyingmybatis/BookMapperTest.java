@@ -1,18 +1,37 @@
 package tech.yanand.flyingmybatis;
 
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mybatis.spring.mapper.MapperFactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.yanand.flyingmybatis.book.Book;
 import tech.yanand.flyingmybatis.book.BookMapper;
+import tech.yanand.flyingmybatis.book.BookName;
+import tech.yanand.flyingmybatis.book.BookPublishDate;
 
+import javax.sql.DataSource;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
 
 @SpringBootTest
@@ -23,6 +42,18 @@ class BookMapperTest {
     @Autowired
     private BookMapper bookMapper;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatementMetricsRecorder statementMetricsRecorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
     @BeforeEach
     void insertAll() {
         Book book1 = new Book("test_book_1", LocalDate.now());
@@ -45,6 +76,86 @@ class BookMapperTest {
         assertEquals(2, book3.getId());
     }
 
+    @Test
+    void insertAllInBatch() {
+        Book book3 = new Book("test_book_3", LocalDate.now());
+        Book book4 = new Book("test_book_4", LocalDate.now());
+        Book book5 = new Book("test_book_5", LocalDate.now());
+
+        int result = bookMapper.insertAllInBatch(List.of(book3, book4, book5), 2);
+
+        assertEquals(3, result);
+        assertEquals(2, book3.getId());
+        assertEquals(3, book4.getId());
+        assertEquals(4, book5.getId());
+        assertEquals(5, bookMapper.countAll());
+    }
+
+    @Test
+    void insertAllInChunks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            books.add(new Book("test_book_" + (i + 3), LocalDate.now()));
+        }
+
+        int result = bookMapper.insertAll(books);
+
+        assertEquals(2500, result);
+        assertEquals(2, books.get(0).getId());
+        assertEquals(2501, books.get(2499).getId());
+        assertEquals(2502, bookMapper.countAll());
+    }
+
+    @Test
+    void insertAllInJdbcBatches() throws Exception {
+        Configuration configuration = new Configuration(
+                new Environment("batched", new JdbcTransactionFactory(), dataSource));
+        MapperFactoryBean<BookMapper> factoryBean = new MapperFactoryBean<>(BookMapper.class);
+        factoryBean.setSqlSessionFactory(new SqlSessionFactoryBuilder().build(configuration));
+        factoryBean.afterPropertiesSet();
+        AutoMapperProcessor processor = new AutoMapperProcessor();
+        processor.setDialect(new BatchPreferredDialect());
+        processor.postProcessAfterInitialization(factoryBean, "batchedBookMapper");
+        Book book3 = new Book("test_book_3", LocalDate.now());
+        Book book4 = new Book("test_book_4", LocalDate.now());
+        Book book5 = new Book("test_book_5", LocalDate.now());
+
+        int result = factoryBean.getObject().insertAll(List.of(book3, book4, book5));
+
+        assertEquals(3, result);
+        assertEquals(2, book3.getId());
+        assertEquals(4, book5.getId());
+        assertEquals(5, bookMapper.countAll());
+        // Each configuration keeps the SQL of its own dialect
+        assertEquals("delete from book", deleteAllSql(configuration));
+        assertEquals("truncate table book", deleteAllSql(sqlSessionFactory.getConfiguration()));
+    }
+
+    @Test
+    void insertOrUpdate() {
+        int updated = bookMapper.insertOrUpdate(new Book(1L, "test_book_2_new", LocalDate.now()));
+        int inserted = bookMapper.insertOrUpdate(new Book(5L, "test_book_5", LocalDate.now()));
+
+        assertEquals(1, updated);
+        assertEquals(1, inserted);
+        assertEquals("test_book_2_new", bookMapper.selectById(1L).getName());
+        assertEquals("test_book_5", bookMapper.selectById(5L).getName());
+        assertEquals(3, bookMapper.countAll());
+    }
+
+    @Test
+    void insertAllOrUpdate() {
+        Book book1 = new Book(0L, "test_book_1_new", LocalDate.now());
+        Book book7 = new Book(7L, "test_book_7", LocalDate.now());
+
+        int result = bookMapper.insertAllOrUpdate(List.of(book1, book7));
+
+        assertEquals(2, result);
+        assertEquals("test_book_1_new", bookMapper.selectById(0L).getName());
+        assertEquals("test_book_7", bookMapper.selectById(7L).getName());
+        assertEquals(3, bookMapper.countAll());
+    }
+
     @Test
     void selectAll() {
         List<Book> bookList = bookMapper.selectAll();
@@ -57,6 +168,8 @@ class BookMapperTest {
         Book book = bookMapper.selectById(1L);
 
         assertEquals("test_book_2", book.getName());
+        // Mapped by the registered ResultMap, the camel case conversion of MyBatis is not enabled
+        assertEquals(LocalDate.now(), book.getPublishDate());
     }
 
     @Test
@@ -66,6 +179,61 @@ class BookMapperTest {
         assertEquals(2, bookList.size());
     }
 
+    @Test
+    void selectAllByIdInChunks() {
+        bookMapper.insert(new Book("test_book_3", LocalDate.now()));
+
+        List<Book> bookList = bookMapper.selectAllById(List.of(0L, 1L, 2L));
+
+        assertEquals(3, bookList.size());
+    }
+
+    @Test
+    void selectByIdAsync() {
+        AsyncAutoMapper<Book, Long> asyncBookMapper = AsyncAutoMapper.of(bookMapper);
+
+        CompletableFuture<Book> book1 = asyncBookMapper.selectById(0L);
+        CompletableFuture<Book> book2 = asyncBookMapper.selectById(1L);
+
+        assertEquals("test_book_1", book1.join().getName());
+        assertEquals("test_book_2", book2.join().getName());
+    }
+
+    @Test
+    void countAndDeleteAllAsync() {
+        AsyncAutoMapper<Book, Long> asyncBookMapper = AsyncAutoMapper.of(bookMapper);
+
+        CompletableFuture<Boolean> exists = asyncBookMapper.existsById(1L);
+        CompletableFuture<Long> count = asyncBookMapper.countByColumn("name", "test_book_2");
+
+        assertTrue(exists.join());
+        assertEquals(1, count.join());
+
+        asyncBookMapper.deleteAll().join();
+
+        assertEquals(0, bookMapper.countAll());
+    }
+
+    @Test
+    void selectProjectionById() {
+        BookName bookName = bookMapper.selectProjectionById(1L, BookName.class);
+
+        assertEquals(new BookName(1L, "test_book_2"), bookName);
+    }
+
+    @Test
+    void selectAllProjectionById() {
+        bookMapper.insert(new Book("test_book_3", LocalDate.now()));
+
+        List<BookPublishDate> bookList = bookMapper.selectAllProjectionById(List.of(0L, 1L, 2L),
+                BookPublishDate.class);
+
+        assertEquals(3, bookList.size());
+        assertEquals(LocalDate.now(), bookList.get(0).getPublishDate());
+        assertEquals(List.of("test_book_1", "test_book_2", "test_book_3"),
+                bookList.stream().map(BookPublishDate::getName).sorted().toList());
+    }
+
     @Test
     void selectAllByColumn() {
         List<Book> bookList = bookMapper.selectAllByColumn("name", "test_book_2");
@@ -74,6 +242,55 @@ class BookMapperTest {
         assertEquals("test_book_2", bookList.iterator().next().getName());
     }
 
+    @Test
+    void selectAllByCriteria() {
+        bookMapper.insert(new Book("test_book_3", null));
+
+        List<Book> bookList = bookMapper.selectAllByCriteria(new Criteria()
+                .in("id", List.of(0L, 1L, 2L))
+                .isNotNull("publishDate")
+                .orderByDesc("id")
+                .limit(1));
+
+        assertEquals(1, bookList.size());
+        assertEquals("test_book_2", bookList.get(0).getName());
+    }
+
+    @Test
+    void existsById() {
+        assertTrue(bookMapper.existsById(1L));
+        assertFalse(bookMapper.existsById(2L));
+    }
+
+    @Test
+    void existsAllById() {
+        Set<Long> ids = bookMapper.existsAllById(List.of(0L, 1L, 2L));
+
+        assertEquals(Set.of(0L, 1L), ids);
+    }
+
+    @Test
+    void selectPageAfter() {
+        bookMapper.insert(new Book("test_book_3", LocalDate.now()));
+
+        List<Book> firstPage = bookMapper.selectPageAfter(null, 2);
+        List<Book> secondPage = bookMapper.selectPageAfter(firstPage.get(1).getId(), 2);
+
+        assertEquals(List.of(0L, 1L), firstPage.stream().map(Book::getId).toList());
+        assertEquals(List.of(2L), secondPage.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    void selectPageByColumnAfter() {
+        bookMapper.insert(new Book("test_book_2", LocalDate.now()));
+
+        List<Book> firstPage = bookMapper.selectPageByColumnAfter("name", "test_book_2", null, 1);
+        List<Book> secondPage = bookMapper.selectPageByColumnAfter("name", "test_book_2", firstPage.get(0).getId(), 1);
+
+        assertEquals(1L, firstPage.get(0).getId());
+        assertEquals(2L, secondPage.get(0).getId());
+    }
+
     @Test
     void selectAllByName() {
         Collection<Book> bookList = bookMapper.selectByName("%test_book_2%");
@@ -82,6 +299,93 @@ class BookMapperTest {
         assertEquals("test_book_2", bookList.iterator().next().getName());
     }
 
+    @Test
+    void selectAllByColumnStream() {
+        List<String> names = transactionTemplate.execute(status -> {
+            try (Stream<Book> bookStream = bookMapper.selectAllByColumnStream("name", "test_book_2")) {
+                return bookStream.map(Book::getName).toList();
+            }
+        });
+
+        assertEquals(List.of("test_book_2"), names);
+    }
+
+    @Test
+    void selectAllStream() {
+        Long count = transactionTemplate.execute(status -> {
+            try (Stream<Book> bookStream = bookMapper.selectAllStream()) {
+                return bookStream.count();
+            }
+        });
+
+        assertEquals(2, count);
+    }
+
+    @Test
+    void countAllApproximate() {
+        long count = bookMapper.countAllApproximate();
+        bookMapper.insert(new Book("test_book_3", LocalDate.now()));
+
+        assertEquals(2, count);
+        // Cached within the TTL
+        assertEquals(2, bookMapper.countAllApproximate());
+    }
+
+    @Test
+    void countByColumn() {
+        long count = bookMapper.countByColumn("name", "test_book_2");
+
+        assertEquals(1, count);
+    }
+
+    @Test
+    void countByCriteria() {
+        long count = bookMapper.countByCriteria(new Criteria().in("id", List.of(0L, 1L, 2L)).orderBy("name").limit(1));
+
+        assertEquals(2, count);
+    }
+
+    @Test
+    void selectAllWithHandler() {
+        List<Book> bookList = new ArrayList<>();
+
+        bookMapper.selectAllWithHandler(context -> bookList.add(context.getResultObject()));
+
+        assertEquals(2, bookList.size());
+    }
+
+    @Test
+    void metrics() {
+        String key = BookMapper.class.getName() + ".selectAllById";
+        StatementMetricsRecorder.Stats stats = statementMetricsRecorder.getStats().get(key);
+        long count = stats == null ? 0 : stats.getCount();
+        long rows = stats == null ? 0 : stats.getRows();
+
+        bookMapper.selectAllById(List.of(0L, 1L));
+
+        stats = statementMetricsRecorder.getStats().get(key);
+        assertEquals(count + 1, stats.getCount());
+        assertEquals(rows + 2, stats.getRows());
+        assertEquals(count + 1, stats.getExecution().getCount());
+    }
+
+    @Test
+    void cursorMetrics() {
+        String key = BookMapper.class.getName() + ".selectAllCursor";
+        StatementMetricsRecorder.Stats stats = statementMetricsRecorder.getStats().get(key);
+        long count = stats == null ? 0 : stats.getCount();
+
+        transactionTemplate.execute(status -> {
+            try (Stream<Book> bookStream = bookMapper.selectAllStream()) {
+                return bookStream.count();
+            }
+        });
+
+        stats = statementMetricsRecorder.getStats().get(key);
+        assertEquals(count + 1, stats.getCount());
+        assertEquals(count + 1, stats.getExecution().getCount());
+    }
+
     @Test
     void countAll() {
         long count = bookMapper.countAll();
@@ -113,6 +417,52 @@ class BookMapperTest {
         assertEquals("test_book_4", bookMapper.selectById(1L).getName());
     }
 
+    @Test
+    void updateAllWithoutInterceptor() {
+        LocalDate publishDate = bookMapper.selectById(0L).getPublishDate();
+        Configuration configuration = new Configuration(
+                new Environment("plain", new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(BookMapper.class);
+
+        try (SqlSession sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession(true)) {
+            BookMapper plainBookMapper = sqlSession.getMapper(BookMapper.class);
+            int result = plainBookMapper.updateAll(List.of(new Book(0L, "test_book_3", publishDate),
+                    new Book(1L, "test_book_4", LocalDate.of(2000, 1, 1))));
+            int selectiveResult = plainBookMapper.updateAllSelective(List.of(new Book(0L, "test_book_5", null)));
+
+            assertEquals(2, result);
+            assertEquals(1, selectiveResult);
+        }
+        assertEquals("test_book_5", bookMapper.selectById(0L).getName());
+        assertEquals(publishDate, bookMapper.selectById(0L).getPublishDate());
+        assertEquals("test_book_4", bookMapper.selectById(1L).getName());
+        assertEquals(LocalDate.of(2000, 1, 1), bookMapper.selectById(1L).getPublishDate());
+    }
+
+    @Test
+    void updateByColumn() {
+        LocalDate publishDate = bookMapper.selectById(0L).getPublishDate();
+
+        int result = bookMapper.updateByColumn("name", "test_book_2", Map.of("publishDate", LocalDate.of(2000, 1, 1)));
+
+        assertEquals(1, result);
+        assertEquals(publishDate, bookMapper.selectById(0L).getPublishDate());
+        assertEquals(LocalDate.of(2000, 1, 1), bookMapper.selectById(1L).getPublishDate());
+    }
+
+    @Test
+    void updateAllSelectiveWithNullFields() {
+        LocalDate publishDate = bookMapper.selectById(0L).getPublishDate();
+        Book book3 = new Book(0L, "test_book_3", null);
+        Book book4 = new Book(1L, "test_book_4", LocalDate.of(2000, 1, 1));
+
+        int result = bookMapper.updateAllSelective(List.of(book3, book4));
+
+        assertEquals(2, result);
+        assertEquals(publishDate, bookMapper.selectById(0L).getPublishDate());
+        assertEquals(LocalDate.of(2000, 1, 1), bookMapper.selectById(1L).getPublishDate());
+    }
+
     @Test
     void update() {
         Book book3 = new Book(0L, "test_book_3", LocalDate.now());
@@ -133,6 +483,44 @@ class BookMapperTest {
         assertEquals("test_book_3", bookMapper.selectById(0L).getName());
     }
 
+    @Test
+    void updateChanged() {
+        Book book = bookMapper.selectById(0L);
+        book.setName("test_book_3");
+        book.setPublishDate(null);
+
+        int result = bookMapper.updateChanged(book);
+
+        assertEquals(1, result);
+        Book updatedBook = bookMapper.selectById(0L);
+        assertEquals("test_book_3", updatedBook.getName());
+        assertNull(updatedBook.getPublishDate());
+    }
+
+    @Test
+    void updateChangedAfterRollback() {
+        Book book = bookMapper.selectById(0L);
+        book.setName("test_book_3");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, bookMapper.updateChanged(book));
+            status.setRollbackOnly();
+        });
+        int result = bookMapper.updateChanged(book);
+
+        assertEquals(1, result);
+        assertEquals("test_book_3", bookMapper.selectById(0L).getName());
+    }
+
+    @Test
+    void updateChangedWithoutChanges() {
+        Book book = bookMapper.selectById(0L);
+
+        int result = bookMapper.updateChanged(book);
+
+        assertEquals(0, result);
+    }
+
     @Test
     void deleteById() {
         int result = bookMapper.deleteById(1L);
@@ -147,6 +535,24 @@ class BookMapperTest {
         assertEquals(2, result);
     }
 
+    @Test
+    void deleteAllByIdInChunks() {
+        bookMapper.insert(new Book("test_book_3", LocalDate.now()));
+
+        int result = bookMapper.deleteAllById(List.of(0L, 1L, 2L));
+
+        assertEquals(3, result);
+        assertEquals(0, bookMapper.countAll());
+    }
+
+    @Test
+    void deleteByColumn() {
+        int result = bookMapper.deleteByColumn("name", "test_book_1");
+
+        assertEquals(1, result);
+        assertEquals(List.of(1L), bookMapper.selectAll().stream().map(Book::getId).toList());
+    }
+
     @Test
     void deleteAll() {
         bookMapper.deleteAll();
@@ -154,4 +560,20 @@ class BookMapperTest {
         assertEquals(0, bookMapper.countAll());
     }
 
+    private static String deleteAllSql(Configuration configuration) {
+        return configuration.getMappedStatement(BookMapper.class.getName() + ".deleteAll").getBoundSql(null).getSql();
+    }
+
+    private static class BatchPreferredDialect implements Dialect {
+
+        @Override
+        public boolean supports(String productName) {
+            return true;
+        }
+
+        @Override
+        public boolean isJdbcBatchPreferred() {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import tech.yanand.flyingmybatis.book.Chapter;
+import tech.yanand.flyingmybatis.book.ChapterMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class ChapterMapperTest {
+
+    @Autowired
+    private ChapterMapper chapterMapper;
+
+    @Test
+    void insertAndSelectById() {
+        Chapter chapter = new Chapter("chapter_1");
+
+        int result = chapterMapper.insert(chapter);
+
+        assertEquals(1, result);
+        assertNotNull(chapter.getId());
+        Chapter selectedChapter = chapterMapper.selectById(chapter.getId());
+        assertEquals(chapter.getId(), selectedChapter.getId());
+        assertEquals("chapter_1", selectedChapter.getTitle());
+    }
+
+    @Test
+    void selectByGivenId() {
+        Chapter chapter = new Chapter("chapter_1");
+        chapterMapper.insert(chapter);
+        // A UUID equal to the generated one, so the parameter is bound by its value
+        UUID id = UUID.fromString(chapter.getId().toString());
+
+        Chapter selectedChapter = chapterMapper.selectById(id);
+
+        assertEquals("chapter_1", selectedChapter.getTitle());
+        assertNull(chapterMapper.selectById(UUID.randomUUID()));
+    }
+
+    @Test
+    void insertAllAndSelectAllById() {
+        Chapter chapter1 = new Chapter("chapter_1");
+        Chapter chapter2 = new Chapter("chapter_2");
+
+        int result = chapterMapper.insertAll(List.of(chapter1, chapter2));
+
+        assertEquals(2, result);
+        Map<UUID, String> titles = chapterMapper.selectAllById(List.of(chapter1.getId(), chapter2.getId())).stream()
+                .collect(Collectors.toMap(Chapter::getId, Chapter::getTitle));
+        assertEquals(Map.of(chapter1.getId(), "chapter_1", chapter2.getId(), "chapter_2"), titles);
+    }
+}
@@ -0,0 +1,152 @@
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import tech.yanand.flyingmybatis.book.Edition;
+import tech.yanand.flyingmybatis.book.EditionMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class EditionMapperTest {
+
+    @Autowired
+    private EditionMapper editionMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void insertAll() {
+        Edition edition1 = new Edition("edition_1");
+        Edition edition2 = new Edition("edition_2");
+
+        int result = editionMapper.insertAll(List.of(edition1, edition2));
+
+        assertEquals(2, result);
+        assertEquals(0, edition1.getVersion());
+        assertEquals(0, edition2.getVersion());
+    }
+
+    @Test
+    void insertSetsNullVersion() {
+        Edition edition3 = new Edition("edition_3");
+
+        editionMapper.insert(edition3);
+
+        assertEquals(0, edition3.getVersion());
+        assertEquals(0, editionMapper.selectById(edition3.getId()).getVersion());
+    }
+
+    @Test
+    void updateIncrementsVersion() {
+        Edition edition = editionMapper.selectById(0L);
+        edition.setTitle("edition_3");
+
+        int result = editionMapper.update(edition);
+
+        assertEquals(1, result);
+        assertEquals(1, edition.getVersion());
+        Edition updatedEdition = editionMapper.selectById(0L);
+        assertEquals("edition_3", updatedEdition.getTitle());
+        assertEquals(1, updatedEdition.getVersion());
+    }
+
+    @Test
+    void staleUpdateThrows() {
+        Edition edition = editionMapper.selectById(0L);
+        Edition staleEdition = editionMapper.selectById(0L);
+        edition.setTitle("edition_3");
+        staleEdition.setTitle("edition_4");
+        editionMapper.update(edition);
+
+        OptimisticLockException exception = assertThrows(OptimisticLockException.class,
+                () -> editionMapper.update(staleEdition));
+
+        assertSame(staleEdition, exception.getEntity());
+        assertEquals(0, staleEdition.getVersion());
+        assertEquals("edition_3", editionMapper.selectById(0L).getTitle());
+    }
+
+    @Test
+    void updateAllThrowsOnFlush() {
+        Edition edition1 = editionMapper.selectById(0L);
+        Edition staleEdition2 = editionMapper.selectById(1L);
+        editionMapper.update(editionMapper.selectById(1L));
+
+        OptimisticLockException exception = assertThrows(OptimisticLockException.class,
+                () -> editionMapper.updateAll(List.of(edition1, staleEdition2)));
+
+        assertSame(staleEdition2, exception.getEntity());
+        assertEquals(1, editionMapper.selectById(1L).getVersion());
+    }
+
+    @Test
+    void updateAllWithoutInterceptorRejectsVersion() {
+        Edition edition = editionMapper.selectById(0L);
+        Configuration configuration = new Configuration(
+                new Environment("plain", new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(EditionMapper.class);
+
+        try (SqlSession sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession(true)) {
+            EditionMapper plainEditionMapper = sqlSession.getMapper(EditionMapper.class);
+
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> plainEditionMapper.updateAll(List.of(edition)));
+
+            assertEquals(IllegalStateException.class, rootCause(exception).getClass());
+        }
+        assertEquals(0, editionMapper.selectById(0L).getVersion());
+    }
+
+    @Test
+    void updateByColumnIncrementsVersion() {
+        int result = editionMapper.updateByColumn("title", "edition_1", Map.of("title", "edition_3"));
+
+        assertEquals(1, result);
+        assertEquals(1, editionMapper.selectById(0L).getVersion());
+        assertEquals(0, editionMapper.selectById(1L).getVersion());
+    }
+
+    @Test
+    void updateByColumnRejectsVersion() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> editionMapper.updateByColumn("title", "edition_1", Map.of("version", 5)));
+
+        assertEquals("Version column [version] is incremented only", rootCause(exception).getMessage());
+    }
+
+    @Test
+    void insertOrUpdateRejectsVersion() {
+        Edition edition = editionMapper.selectById(0L);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> editionMapper.insertOrUpdate(edition));
+
+        assertEquals(IllegalStateException.class, rootCause(exception).getClass());
+        assertEquals(0, editionMapper.selectById(0L).getVersion());
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+}
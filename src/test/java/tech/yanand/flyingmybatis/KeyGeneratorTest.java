@@ -0,0 +1,70 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyGeneratorTest {
+
+    @Test
+    void uuidV7VersionAndVariant() {
+        UUID uuid = UuidV7Generator.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void uuidV7Monotonic() {
+        UUID previous = UuidV7Generator.next();
+        // More keys than a millisecond holds, so the counter overflows into the next millisecond
+        for (int i = 0; i < 10000; i++) {
+            UUID next = UuidV7Generator.next();
+
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void uuidV7Timestamp() {
+        long before = System.currentTimeMillis();
+
+        long timestamp = UuidV7Generator.next().getMostSignificantBits() >>> 16;
+
+        assertTrue(timestamp >= before);
+    }
+
+    @Test
+    void snowflakeMonotonic() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+        long previous = generator.next();
+        for (int i = 0; i < 10000; i++) {
+            long next = generator.next();
+
+            assertTrue(previous < next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void snowflakeNodeId() {
+        long id = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID).next();
+
+        assertTrue(id > 0);
+        assertEquals(SnowflakeIdGenerator.MAX_NODE_ID, (id >>> 12) & 1023);
+        assertEquals(5, (new SnowflakeIdGenerator(5).next() >>> 12) & 1023);
+    }
+
+    @Test
+    void snowflakeInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
@@ -0,0 +1,136 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.yanand.flyingmybatis.book.Publisher;
+import tech.yanand.flyingmybatis.book.PublisherMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class PublisherMapperTest {
+
+    @Autowired
+    private PublisherMapper publisherMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void insertAll() {
+        // The tables are recreated by each test, so are the IDs
+        publisherMapper.deleteAll();
+
+        int result = publisherMapper.insertAll(List.of(new Publisher("publisher_1"), new Publisher("publisher_2")));
+
+        assertEquals(2, result);
+    }
+
+    @Test
+    void selectByIdReadsThroughCache() throws SQLException {
+        publisherMapper.selectById(0L);
+        renameAll("renamed");
+
+        Publisher publisher = publisherMapper.selectById(0L);
+
+        assertEquals("publisher_1", publisher.getName());
+    }
+
+    @Test
+    void selectAllByIdSelectsMissingIds() throws SQLException {
+        publisherMapper.selectById(0L);
+        renameAll("renamed");
+
+        Map<Long, String> names = publisherMapper.selectAllById(List.of(0L, 1L)).stream()
+                .collect(Collectors.toMap(Publisher::getId, Publisher::getName));
+
+        assertEquals(Map.of(0L, "publisher_1", 1L, "renamed"), names);
+    }
+
+    @Test
+    void updateInvalidatesCache() {
+        publisherMapper.selectById(0L);
+
+        publisherMapper.update(new Publisher(0L, "publisher_3"));
+
+        assertEquals("publisher_3", publisherMapper.selectById(0L).getName());
+    }
+
+    @Test
+    void deleteInvalidatesCache() {
+        publisherMapper.selectById(0L);
+
+        publisherMapper.deleteById(0L);
+
+        assertNull(publisherMapper.selectById(0L));
+    }
+
+    @Test
+    void cacheExpires() throws SQLException, InterruptedException {
+        publisherMapper.selectById(0L);
+        renameAll("renamed");
+
+        Thread.sleep(1100);
+
+        assertEquals("renamed", publisherMapper.selectById(0L).getName());
+    }
+
+    @Test
+    void uncommittedEntitiesAreNotCached() {
+        PrimaryKeyCache cache = MetaDataCache.getTableInfo(PublisherMapper.class).getCache();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            publisherMapper.update(new Publisher(0L, "publisher_3"));
+
+            assertEquals("publisher_3", publisherMapper.selectById(0L).getName());
+            assertNull(cache.get(0L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("publisher_1", publisherMapper.selectById(0L).getName());
+    }
+
+    @Test
+    void batchRegistersSingleInvalidation() {
+        int added = transactionTemplate.execute(status -> {
+            publisherMapper.selectAll();
+            int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+
+            publisherMapper.updateAll(List.of(new Publisher(0L, "publisher_3"), new Publisher(1L, "publisher_4")));
+            publisherMapper.update(new Publisher(0L, "publisher_5"));
+
+            return TransactionSynchronizationManager.getSynchronizations().size() - synchronizations;
+        });
+
+        assertEquals(1, added);
+        assertEquals("publisher_5", publisherMapper.selectById(0L).getName());
+        assertEquals("publisher_4", publisherMapper.selectById(1L).getName());
+    }
+
+    private void renameAll(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update publisher set name = '" + name + "'");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+/**
+ * The entities here are compiled without the {@link TableMetadataProcessor}, so are resolved by reflection.
+ */
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class ReflectionFallbackTest {
+
+    @TempDir
+    private Path workDir;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TestCompiler compiler;
+
+    @BeforeEach
+    void compile() throws Exception {
+        compiler = new TestCompiler(workDir);
+
+        boolean success = compiler.compile(Map.of(
+                "sample.ReflectedPublisher", TableMetadataProcessorTest.entity("ReflectedPublisher", "publisher", """
+                        @Column
+                        @PrimaryKey
+                        private Long id;
+
+                        @Column
+                        private String name;
+                        """),
+                "sample.ReflectedPublisherMapper", mapper("ReflectedPublisher"),
+                "sample.Ticket", TableMetadataProcessorTest.entity("Ticket", "ticket", """
+                        @Column
+                        @PrimaryKey(keyType = PrimaryKey.KeyType.SNOWFLAKE)
+                        private Integer id;
+                        """),
+                "sample.TicketMapper", mapper("Ticket")), false);
+
+        assertTrue(success, compiler.errors());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertAndSelectById() throws Exception {
+        ClassLoader classLoader = compiler.classLoader();
+        Class<?> entityType = classLoader.loadClass("sample.ReflectedPublisher");
+        AutoMapper<Object, Long> mapper = (AutoMapper<Object, Long>) processMapper(
+                classLoader.loadClass("sample.ReflectedPublisherMapper"));
+        Field id = entityType.getDeclaredField("id");
+        Field name = entityType.getDeclaredField("name");
+        id.setAccessible(true);
+        name.setAccessible(true);
+
+        Object publisher = entityType.getDeclaredConstructor().newInstance();
+        name.set(publisher, "reflected");
+        int result = mapper.insert(publisher);
+
+        assertEquals(1, result);
+        Object selected = mapper.selectById((Long) id.get(publisher));
+        assertEquals("reflected", name.get(selected));
+    }
+
+    @Test
+    void keyTypeMismatch() throws Exception {
+        Class<?> mapperType = compiler.classLoader().loadClass("sample.TicketMapper");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> MetaDataCache.getTableInfo(mapperType));
+
+        assertEquals("Key [id] of SNOWFLAKE must be a Long or a String.", exception.getMessage());
+    }
+
+    // A configuration of its own, as the mapper is not scanned
+    private Object processMapper(Class<?> mapperInterface) throws Exception {
+        Configuration configuration = new Configuration(
+                new Environment("reflected", new JdbcTransactionFactory(), dataSource));
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        MapperFactoryBean<?> factoryBean = new MapperFactoryBean<>(mapperInterface);
+        factoryBean.setSqlSessionFactory(sqlSessionFactory);
+        factoryBean.afterPropertiesSet();
+        new AutoMapperProcessor().postProcessAfterInitialization(factoryBean, mapperInterface.getName());
+        return factoryBean.getObject();
+    }
+
+    private static String mapper(String entityName) {
+        return "package sample;\n\n"
+                + "public interface " + entityName + "Mapper extends tech.yanand.flyingmybatis.AutoMapper<"
+                + entityName + ", Long> {\n"
+                + "}\n";
+    }
+}
@@ -0,0 +1,38 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import tech.yanand.flyingmybatis.book.Review;
+import tech.yanand.flyingmybatis.book.ReviewMapper;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class ReviewMapperTest {
+
+    @Autowired
+    private ReviewMapper reviewMapper;
+
+    @Test
+    void insertAndSelectById() {
+        Review review1 = new Review("review_1");
+        Review review2 = new Review("review_2");
+
+        int result = reviewMapper.insert(review1) + reviewMapper.insert(review2);
+
+        assertEquals(2, result);
+        assertDoesNotThrow(() -> UUID.fromString(review1.getId()));
+        assertNotEquals(review1.getId(), review2.getId());
+        assertEquals("review_1", reviewMapper.selectById(review1.getId()).getContent());
+        assertEquals("review_2", reviewMapper.selectById(review2.getId()).getContent());
+    }
+}
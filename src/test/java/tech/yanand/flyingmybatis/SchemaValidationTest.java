@@ -0,0 +1,72 @@
+package tech.yanand.flyingmybatis;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import tech.yanand.flyingmybatis.book.PublisherMapper;
+import tech.yanand.flyingmybatis.invalid.MagazineMapper;
+import tech.yanand.flyingmybatis.invalid.MisspelledPublisherMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+@SpringBootTest
+@Sql("/test-create-schema.sql")
+@Sql(scripts = "/test-drop-schema.sql", executionPhase = AFTER_TEST_METHOD)
+class SchemaValidationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void missingTableAndColumn() throws Exception {
+        AutoMapperProcessor processor = processMappers(MagazineMapper.class, MisspelledPublisherMapper.class);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                processor::afterSingletonsInstantiated);
+
+        String message = exception.getMessage();
+        assertTrue(message.startsWith("Schema validation failed:"));
+        assertTrue(message.contains("Table [magazine] of [tech.yanand.flyingmybatis.invalid.Magazine] does not exist."));
+        assertTrue(message.contains("Column [nmae] of table [publisher] mapped by "
+                + "[tech.yanand.flyingmybatis.invalid.MisspelledPublisher.name] does not exist."));
+        assertFalse(message.contains("Column [id]"));
+    }
+
+    @Test
+    void matchingSchema() throws Exception {
+        AutoMapperProcessor processor = processMappers(PublisherMapper.class);
+
+        assertDoesNotThrow(processor::afterSingletonsInstantiated);
+    }
+
+    // A configuration of its own, so the processor does not intercept the statements of the other tests
+    private AutoMapperProcessor processMappers(Class<?>... mapperInterfaces) throws Exception {
+        Configuration configuration = new Configuration(
+                new Environment("validated", new JdbcTransactionFactory(), dataSource));
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+        AutoMapperProcessor processor = new AutoMapperProcessor();
+        processor.setSchemaValidation(true);
+        for (Class<?> mapperInterface : List.of(mapperInterfaces)) {
+            MapperFactoryBean<?> factoryBean = new MapperFactoryBean<>(mapperInterface);
+            factoryBean.setSqlSessionFactory(sqlSessionFactory);
+            factoryBean.afterPropertiesSet();
+            processor.postProcessAfterInitialization(factoryBean, mapperInterface.getName());
+        }
+        return processor;
+    }
+}
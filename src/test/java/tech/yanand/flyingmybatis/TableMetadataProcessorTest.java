@@ -0,0 +1,93 @@
+package tech.yanand.flyingmybatis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableMetadataProcessorTest {
+
+    @TempDir
+    private Path workDir;
+
+    @Test
+    void validEntity() throws Exception {
+        TestCompiler compiler = new TestCompiler(workDir);
+
+        boolean success = compiler.compile(Map.of("sample.Valid", entity("Valid", "valid", """
+                @Column
+                @PrimaryKey(keyType = PrimaryKey.KeyType.SEQUENCE, sequence = "valid_seq", allocationSize = 10)
+                private Long id;
+
+                @Column
+                @Version
+                private int version;
+                """)), true);
+
+        assertTrue(success, compiler.errors());
+        assertDoesNotThrow(() -> Class.forName("sample.Valid_TableMetadata", false, compiler.classLoader()));
+    }
+
+    @Test
+    void nonPositiveAllocationSize() throws Exception {
+        assertError("Allocation size of sequence [zero_seq] must be positive.", """
+                @Column
+                @PrimaryKey(keyType = PrimaryKey.KeyType.SEQUENCE, sequence = "zero_seq", allocationSize = 0)
+                private Long id;
+                """);
+    }
+
+    @Test
+    void snowflakeKeyTypeMismatch() throws Exception {
+        assertError("Key [id] of SNOWFLAKE must be a Long or a String.", """
+                @Column
+                @PrimaryKey(keyType = PrimaryKey.KeyType.SNOWFLAKE)
+                private Integer id;
+                """);
+    }
+
+    @Test
+    void uuidKeyTypeMismatch() throws Exception {
+        assertError("Key [id] of UUID must be a UUID or a String.", """
+                @Column
+                @PrimaryKey(keyType = PrimaryKey.KeyType.UUID)
+                private Long id;
+                """);
+    }
+
+    @Test
+    void versionTypeMismatch() throws Exception {
+        assertError("Version [version] must be an Integer or a Long.", """
+                @Column
+                @PrimaryKey
+                private Long id;
+
+                @Column
+                @Version
+                private String version;
+                """);
+    }
+
+    private void assertError(String expected, String fields) throws Exception {
+        TestCompiler compiler = new TestCompiler(workDir);
+
+        boolean success = compiler.compile(Map.of("sample.Invalid", entity("Invalid", "invalid", fields)), true);
+
+        assertFalse(success);
+        assertTrue(compiler.errors().contains(expected), compiler.errors());
+    }
+
+    static String entity(String name, String table, String fields) {
+        return "package sample;\n\n"
+                + "import tech.yanand.flyingmybatis.*;\n\n"
+                + "@Table(\"" + table + "\")\n"
+                + "public class " + name + " {\n\n"
+                + fields.indent(4)
+                + "}\n";
+    }
+}
@@ -0,0 +1,81 @@
+package tech.yanand.flyingmybatis;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the sources of a test, with or without the {@link TableMetadataProcessor}, against the test classpath
+ */
+final class TestCompiler {
+
+    private final Path sourceDir;
+
+    private final Path classDir;
+
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics = new ArrayList<>();
+
+    TestCompiler(Path workDir) throws IOException {
+        this.sourceDir = Files.createDirectories(workDir.resolve("src"));
+        this.classDir = Files.createDirectories(workDir.resolve("classes"));
+    }
+
+    /**
+     * @param sources   The sources by the qualified class names.
+     * @param processed Whether the table metadata is generated.
+     * @return Whether the sources are compiled without errors.
+     */
+    boolean compile(Map<String, String> sources, boolean processed) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            files.add(Files.writeString(file, source.getValue()));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null,
+                StandardCharsets.UTF_8)) {
+            List<String> options = processed
+                    ? List.of("-processor", TableMetadataProcessor.class.getName())
+                    : List.of("-proc:none");
+            List<String> allOptions = new ArrayList<>(options);
+            allOptions.addAll(List.of("-d", classDir.toString(), "-classpath", System.getProperty("java.class.path")));
+            boolean success = compiler.getTask(null, fileManager, collector, allOptions, null,
+                    fileManager.getJavaFileObjectsFromPaths(files)).call();
+            diagnostics.addAll(collector.getDiagnostics());
+            return success;
+        }
+    }
+
+    String errors() {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n"));
+    }
+
+    ClassLoader classLoader() {
+        try {
+            return new URLClassLoader(new URL[] {classDir.toUri().toURL()}, getClass().getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,12 +2,26 @@ package tech.yanand.flyingmybatis;
 
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.context.annotation.Import;
 
 @SpringBootConfiguration
 @EnableAutoConfiguration
 @ComponentScan
-@Import(AutoMapperProcessor.class)
 class TestConfig {
+
+    @Bean
+    static StatementMetricsRecorder statementMetricsRecorder() {
+        return new StatementMetricsRecorder();
+    }
+
+    @Bean
+    static AutoMapperProcessor autoMapperProcessor(StatementMetricsRecorder statementMetricsRecorder) {
+        AutoMapperProcessor processor = new AutoMapperProcessor();
+        // Small enough to split the ID collections of the tests
+        processor.setMaxIdsPerStatement(2);
+        processor.setMetricsListener(statementMetricsRecorder);
+        processor.setEagerBootstrap(true);
+        return processor;
+    }
 }
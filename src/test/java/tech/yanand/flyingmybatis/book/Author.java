@@ -0,0 +1,41 @@
+package tech.yanand.flyingmybatis.book;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+
+import static tech.yanand.flyingmybatis.PrimaryKey.KeyType.SEQUENCE;
+
+/**
+ * The Author Entity, whose keys are allocated from a sequence in blocks of 3
+ */
+public class Author {
+
+    @Column
+    @PrimaryKey(keyType = SEQUENCE, sequence = "author_seq", allocationSize = 3)
+    private Long id;
+
+    @Column
+    private String name;
+
+    public Author() { }
+
+    public Author(String name) {
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
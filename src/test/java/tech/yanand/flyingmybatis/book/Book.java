@@ -1,6 +1,7 @@
 package tech.yanand.flyingmybatis.book;
 
 import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.DirtyTracking;
 import tech.yanand.flyingmybatis.PrimaryKey;
 
 import java.time.LocalDate;
@@ -11,6 +12,7 @@ import java.time.LocalDate;
  * @author yanan.zhang
  * @since 2021/4/5
  */
+@DirtyTracking
 public class Book {
 
     @Column
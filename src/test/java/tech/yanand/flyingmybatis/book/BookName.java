@@ -0,0 +1,4 @@
+package tech.yanand.flyingmybatis.book;
+
+public record BookName(Long id, String name) {
+}
@@ -0,0 +1,10 @@
+package tech.yanand.flyingmybatis.book;
+
+import java.time.LocalDate;
+
+public interface BookPublishDate {
+
+    String getName();
+
+    LocalDate getPublishDate();
+}
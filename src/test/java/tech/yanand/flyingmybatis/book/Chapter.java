@@ -0,0 +1,43 @@
+package tech.yanand.flyingmybatis.book;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+
+import java.util.UUID;
+
+import static tech.yanand.flyingmybatis.PrimaryKey.KeyType.UUID_V7;
+
+/**
+ * The Chapter Entity, keyed by a time-ordered UUID
+ */
+public class Chapter {
+
+    @Column
+    @PrimaryKey(keyType = UUID_V7)
+    private UUID id;
+
+    @Column
+    private String title;
+
+    public Chapter() { }
+
+    public Chapter(String title) {
+        this.title = title;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
@@ -0,0 +1,13 @@
+package tech.yanand.flyingmybatis.book;
+
+import org.apache.ibatis.annotations.Mapper;
+import tech.yanand.flyingmybatis.AutoMapper;
+
+import java.util.UUID;
+
+/**
+ * The chapter mapper
+ */
+@Mapper
+public interface ChapterMapper extends AutoMapper<Chapter, UUID> {
+}
@@ -0,0 +1,52 @@
+package tech.yanand.flyingmybatis.book;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+import tech.yanand.flyingmybatis.Version;
+
+/**
+ * The Edition Entity, locked optimistically by its version
+ */
+public class Edition {
+
+    @Column
+    @PrimaryKey
+    private Long id;
+
+    @Column
+    private String title;
+
+    @Column
+    @Version
+    private Integer version;
+
+    public Edition() { }
+
+    public Edition(String title) {
+        this.title = title;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+}
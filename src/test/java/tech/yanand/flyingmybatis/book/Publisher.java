@@ -0,0 +1,46 @@
+package tech.yanand.flyingmybatis.book;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.EntityCache;
+import tech.yanand.flyingmybatis.PrimaryKey;
+
+/**
+ * The Publisher Entity, cached by the primary key
+ */
+@EntityCache(ttlSeconds = 1)
+public class Publisher {
+
+    @Column
+    @PrimaryKey
+    private Long id;
+
+    @Column
+    private String name;
+
+    public Publisher() { }
+
+    public Publisher(String name) {
+        this.name = name;
+    }
+
+    public Publisher(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,11 @@
+package tech.yanand.flyingmybatis.book;
+
+import org.apache.ibatis.annotations.Mapper;
+import tech.yanand.flyingmybatis.AutoMapper;
+
+/**
+ * The publisher mapper
+ */
+@Mapper
+public interface PublisherMapper extends AutoMapper<Publisher, Long> {
+}
@@ -0,0 +1,41 @@
+package tech.yanand.flyingmybatis.book;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+
+import static tech.yanand.flyingmybatis.PrimaryKey.KeyType.UUID;
+
+/**
+ * The Review Entity, keyed by a random UUID kept as a string
+ */
+public class Review {
+
+    @Column
+    @PrimaryKey(keyType = UUID)
+    private String id;
+
+    @Column
+    private String content;
+
+    public Review() { }
+
+    public Review(String content) {
+        this.content = content;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,11 @@
+package tech.yanand.flyingmybatis.book;
+
+import org.apache.ibatis.annotations.Mapper;
+import tech.yanand.flyingmybatis.AutoMapper;
+
+/**
+ * The review mapper
+ */
+@Mapper
+public interface ReviewMapper extends AutoMapper<Review, String> {
+}
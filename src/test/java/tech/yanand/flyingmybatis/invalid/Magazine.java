@@ -0,0 +1,17 @@
+package tech.yanand.flyingmybatis.invalid;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+
+/**
+ * The Magazine Entity, whose table does not exist
+ */
+public class Magazine {
+
+    @Column
+    @PrimaryKey
+    private Long id;
+
+    @Column
+    private String name;
+}
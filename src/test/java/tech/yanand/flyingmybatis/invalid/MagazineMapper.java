@@ -0,0 +1,9 @@
+package tech.yanand.flyingmybatis.invalid;
+
+import tech.yanand.flyingmybatis.AutoMapper;
+
+/**
+ * The magazine mapper, not scanned
+ */
+public interface MagazineMapper extends AutoMapper<Magazine, Long> {
+}
@@ -0,0 +1,19 @@
+package tech.yanand.flyingmybatis.invalid;
+
+import tech.yanand.flyingmybatis.Column;
+import tech.yanand.flyingmybatis.PrimaryKey;
+import tech.yanand.flyingmybatis.Table;
+
+/**
+ * The Publisher Entity with a misspelled column
+ */
+@Table("publisher")
+public class MisspelledPublisher {
+
+    @Column
+    @PrimaryKey
+    private Long id;
+
+    @Column("nmae")
+    private String name;
+}
@@ -0,0 +1,9 @@
+package tech.yanand.flyingmybatis.invalid;
+
+import tech.yanand.flyingmybatis.AutoMapper;
+
+/**
+ * The misspelled publisher mapper, not scanned
+ */
+public interface MisspelledPublisherMapper extends AutoMapper<MisspelledPublisher, Long> {
+}
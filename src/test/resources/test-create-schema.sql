@@ -5,4 +5,47 @@ create table book
         primary key,
     name varchar(100),
     publish_date date
+);
+
+create table publisher
+(
+    id bigint identity
+        constraint PUBLISHER_PK
+        primary key,
+    name varchar(100)
+);
+
+create sequence author_seq as bigint start with 0 increment by 3;
+
+create table author
+(
+    id bigint
+        constraint AUTHOR_PK
+        primary key,
+    name varchar(100)
+);
+
+create table edition
+(
+    id bigint identity
+        constraint EDITION_PK
+        primary key,
+    title varchar(100),
+    version integer
+);
+
+create table chapter
+(
+    id uuid
+        constraint CHAPTER_PK
+        primary key,
+    title varchar(100)
+);
+
+create table review
+(
+    id varchar(36)
+        constraint REVIEW_PK
+        primary key,
+    content varchar(100)
 );
\ No newline at end of file
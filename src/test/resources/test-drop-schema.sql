@@ -1 +1,7 @@
-drop table book;
\ No newline at end of file
+drop table book;
+drop table publisher;
+drop table author;
+drop sequence author_seq;
+drop table edition;
+drop table chapter;
+drop table review;
\ No newline at end of file